@@ -6,6 +6,8 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 public class Main {
+    private static final int MAX_SUGGESTIONS = 5;
+
     public static void main(String[] args) {
         // Create a new scanner instance for this run
         Scanner scanner = new Scanner(System.in);
@@ -40,6 +42,9 @@ public class Main {
         cashier1.assignToRegister(register1);
         cashier2.assignToRegister(register2);
 
+        // Opening the day writes off lots that expired overnight
+        store.onDayTick(LocalDate.now());
+
         while (running) {
             System.out.println("\n=== Меню на Java Store ===");
             System.out.println("1. Покажи налични продукти");
@@ -90,9 +95,7 @@ public class Main {
 
     private static void processPurchase(Store store, CashRegister register, Scanner scanner) {
         Map<Product, Integer> saleItems = new HashMap<>();
-        List<Product> availableProducts = store.getProducts().stream()
-            .filter(p -> p.getQuantity() > 0)
-            .collect(Collectors.toList());
+        List<Product> availableProducts = store.getSellableProducts();
 
         if (availableProducts.isEmpty()) {
             System.out.println("Няма налични продукти за продажба.");
@@ -113,16 +116,21 @@ public class Main {
                 break;
             }
 
-            Optional<Product> productOpt = availableProducts.stream()
-                .filter(p -> p.getId().equals(productId))
-                .findFirst();
+            Product product = store.findProductById(productId);
 
-            if (productOpt.isEmpty()) {
+            if (product == null || !store.isSellable(product)) {
                 System.out.println("Невалиден ID на продукт. Моля, опитайте отново.");
+                List<Product> suggestions = store.searchProducts(productId, MAX_SUGGESTIONS).stream()
+                    .filter(store::isSellable)
+                    .collect(Collectors.toList());
+                if (!suggestions.isEmpty()) {
+                    System.out.println("Може би имахте предвид:");
+                    suggestions.forEach(p ->
+                        System.out.printf("  %s - %s%n", p.getId(), p.getName()));
+                }
                 continue;
             }
 
-            Product product = productOpt.get();
             System.out.print("Въведете количество: ");
             String quantityInput = scanner.nextLine().trim();
             int quantity;
@@ -132,9 +140,9 @@ public class Main {
                     System.out.println("Количеството трябва да е по-голямо от 0.");
                     continue;
                 }
-                if (quantity > product.getQuantity()) {
+                if (quantity > product.getSellableQuantity()) {
                     System.out.printf("Няма достатъчно наличност. Максимално количество: %d\n", 
-                        product.getQuantity());
+                        product.getSellableQuantity());
                     continue;
                 }
             } catch (NumberFormatException e) {
@@ -157,13 +165,15 @@ public class Main {
     }
 
     public static void displayStoreStatistics(Store store) {
+        // Single snapshot so all figures describe the same moment
+        StoreSnapshot snapshot = store.getSnapshot();
         System.out.println("\nСтатистика на магазина:");
         System.out.println("------------------");
-        System.out.printf("Общ приход: %.2f лв.%n", store.getTotalRevenue());
-        System.out.printf("Общи разходи за доставка: %.2f лв.%n", store.getTotalDeliveryCosts());
-        System.out.printf("Общи разходи за заплати: %.2f лв.%n", store.getTotalSalaryCosts());
-        System.out.printf("Обща печалба: %.2f лв.%n", store.calculateProfit());
-        System.out.printf("Общ брой касови бележки: %d%n", store.getTotalReceiptsCount());
+        System.out.printf("Общ приход: %.2f лв.%n", snapshot.getTotalRevenue());
+        System.out.printf("Общи разходи за доставка: %.2f лв.%n", snapshot.getTotalDeliveryCosts());
+        System.out.printf("Общи разходи за заплати: %.2f лв.%n", snapshot.getTotalSalaryCosts());
+        System.out.printf("Обща печалба: %.2f лв.%n", snapshot.calculateProfit());
+        System.out.printf("Общ брой касови бележки: %d%n", snapshot.getReceiptsCount());
         System.out.println("------------------");
     }
 
@@ -0,0 +1,85 @@
+package com.example.store.archive;
+
+import com.example.store.model.Receipt;
+import com.example.store.model.ReceiptQuery;
+import com.example.store.model.ReceiptRecord;
+import com.example.store.model.Store;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * End-of-day job that rolls one day's receipts into a single archive file
+ * (receipts-YYYY-MM-DD.rca) and optionally removes the per-receipt text files.
+ */
+public class DailyReceiptCompactor {
+    private static final String ARCHIVE_PREFIX = "receipts-";
+    private static final String ARCHIVE_SUFFIX = ".rca";
+
+    private final Path archiveDirectory;
+
+    public DailyReceiptCompactor(Path archiveDirectory) {
+        this.archiveDirectory = archiveDirectory;
+    }
+
+    public Path compact(Store store, LocalDate day) throws IOException {
+        return compact(store, day, null);
+    }
+
+    // When receiptTextDirectory is given, the day's receipt_N.txt files are deleted after archiving
+    public Path compact(Store store, LocalDate day, Path receiptTextDirectory) throws IOException {
+        Files.createDirectories(archiveDirectory);
+        List<Receipt> receipts = store.queryReceipts(
+            new ReceiptQuery().between(day.atStartOfDay(), day.plusDays(1).atStartOfDay()));
+
+        Path archive = archiveFor(day);
+        Path temp = archive.resolveSibling(archive.getFileName() + ".tmp");
+        try (ReceiptArchiveWriter writer = new ReceiptArchiveWriter(temp)) {
+            for (Receipt receipt : receipts) {
+                writer.append(ReceiptRecord.from(receipt));
+            }
+        }
+        Files.move(temp, archive, StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+
+        if (receiptTextDirectory != null) {
+            for (Receipt receipt : receipts) {
+                Files.deleteIfExists(receiptTextDirectory.resolve(
+                    String.format("receipt_%d.txt", receipt.getReceiptNumber())));
+            }
+        }
+        return archive;
+    }
+
+    public Path archiveFor(LocalDate day) {
+        return archiveDirectory.resolve(ARCHIVE_PREFIX + day + ARCHIVE_SUFFIX);
+    }
+
+    // Archives for the given days that exist, oldest first
+    public List<Path> archivesBetween(LocalDate from, LocalDate toInclusive) throws IOException {
+        List<Path> archives = new ArrayList<>();
+        if (!Files.isDirectory(archiveDirectory)) {
+            return archives;
+        }
+        try (Stream<Path> files = Files.list(archiveDirectory)) {
+            files.filter(p -> {
+                     String name = p.getFileName().toString();
+                     if (!name.startsWith(ARCHIVE_PREFIX) || !name.endsWith(ARCHIVE_SUFFIX)) {
+                         return false;
+                     }
+                     LocalDate day = LocalDate.parse(
+                         name.substring(ARCHIVE_PREFIX.length(), name.length() - ARCHIVE_SUFFIX.length()));
+                     return !day.isBefore(from) && !day.isAfter(toInclusive);
+                 })
+                 .sorted()
+                 .forEach(archives::add);
+        }
+        return archives;
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.store.archive;
+
+import com.example.store.model.Receipt;
+import com.example.store.model.ReceiptRecord;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Streams receipts back out of an archive written by ReceiptArchiveWriter,
+ * holding one decompressed block in memory at a time.
+ */
+public class ReceiptArchiveReader implements Closeable {
+    private final DataInputStream in;
+    private final Inflater inflater;
+
+    public ReceiptArchiveReader(Path file) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+        this.inflater = new Inflater();
+        int magic = in.readInt();
+        if (magic != BlockCodec.MAGIC) {
+            close();
+            throw new IOException("Not a receipt archive: " + file);
+        }
+    }
+
+    public static long scan(List<Path> archives, Consumer<ReceiptRecord> consumer) throws IOException {
+        long count = 0;
+        for (Path archive : archives) {
+            try (ReceiptArchiveReader reader = new ReceiptArchiveReader(archive)) {
+                count += reader.forEach(consumer);
+            }
+        }
+        return count;
+    }
+
+    // Returns the number of records passed to the consumer
+    public long forEach(Consumer<ReceiptRecord> consumer) throws IOException {
+        long count = 0;
+        List<ReceiptRecord> block;
+        while ((block = readBlock()) != null) {
+            for (ReceiptRecord record : block) {
+                consumer.accept(record);
+            }
+            count += block.size();
+        }
+        return count;
+    }
+
+    // Returns null after the last block
+    public List<ReceiptRecord> readBlock() throws IOException {
+        int recordCount;
+        try {
+            recordCount = in.readInt();
+        } catch (EOFException e) {
+            throw new IOException("Receipt archive is missing its end marker", e);
+        }
+        if (recordCount == 0) {
+            return null;
+        }
+        byte[] raw = new byte[in.readInt()];
+        byte[] compressed = new byte[in.readInt()];
+        in.readFully(compressed);
+
+        inflater.reset();
+        inflater.setInput(compressed);
+        try {
+            int length = 0;
+            while (length < raw.length && !inflater.finished()) {
+                length += inflater.inflate(raw, length, raw.length - length);
+            }
+            if (length != raw.length) {
+                throw new IOException("Corrupt archive block");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt archive block", e);
+        }
+        return decodeBlock(ByteBuffer.wrap(raw), recordCount);
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        in.close();
+    }
+
+    private static List<ReceiptRecord> decodeBlock(ByteBuffer raw, int recordCount) throws IOException {
+        int stringCount = BlockCodec.readVarInt(raw);
+        String[] strings = new String[stringCount + 1];
+        for (int i = 1; i <= stringCount; i++) {
+            strings[i] = BlockCodec.readString(raw);
+        }
+
+        ByteBuffer numbers = column(raw);
+        ByteBuffer timestamps = column(raw);
+        ByteBuffer nanos = column(raw);
+        ByteBuffer people = column(raw);
+        ByteBuffer totals = column(raw);
+        ByteBuffer itemCounts = column(raw);
+        ByteBuffer products = column(raw);
+        ByteBuffer quantities = column(raw);
+        ByteBuffer prices = column(raw);
+        ByteBuffer discountColumn = column(raw);
+
+        List<ReceiptRecord> records = new ArrayList<>(recordCount);
+        long number = 0;
+        long time = 0;
+        for (int r = 0; r < recordCount; r++) {
+            number += BlockCodec.readSignedVarLong(numbers);
+            time += BlockCodec.readSignedVarLong(timestamps);
+            String cashierId = strings[BlockCodec.readVarInt(people)];
+            String cashierName = strings[BlockCodec.readVarInt(people)];
+            String registerId = strings[BlockCodec.readVarInt(people)];
+            long totalMinor = BlockCodec.readSignedVarLong(totals);
+
+            int itemCount = BlockCodec.readVarInt(itemCounts);
+            List<ReceiptRecord.Item> items = new ArrayList<>(itemCount);
+            for (int i = 0; i < itemCount; i++) {
+                String productId = strings[BlockCodec.readVarInt(products)];
+                String productName = strings[BlockCodec.readVarInt(products)];
+                int quantity = BlockCodec.readVarInt(quantities);
+                long unitPriceMinor = BlockCodec.readSignedVarLong(prices);
+                long lineTotalMinor = BlockCodec.readSignedVarLong(prices);
+                items.add(ReceiptRecord.Item.ofMinorUnits(productId, productName, quantity,
+                                                          unitPriceMinor, lineTotalMinor));
+            }
+
+            LocalDateTime timestamp = LocalDateTime.ofEpochSecond(time, BlockCodec.readVarInt(nanos), ZoneOffset.UTC);
+            int discountCount = BlockCodec.readVarInt(discountColumn);
+            List<Receipt.Discount> discounts = new ArrayList<>(discountCount);
+            for (int d = 0; d < discountCount; d++) {
+                String promotionId = strings[BlockCodec.readVarInt(discountColumn)];
+                String description = strings[BlockCodec.readVarInt(discountColumn)];
+                discounts.add(new Receipt.Discount(promotionId, description,
+                                                   BlockCodec.readSignedVarLong(discountColumn)));
+            }
+            records.add(ReceiptRecord.ofMinorUnits((int) number, timestamp, cashierId, cashierName,
+                                                   registerId, totalMinor, items, discounts));
+        }
+        return records;
+    }
+
+    private static ByteBuffer column(ByteBuffer raw) throws IOException {
+        int length = BlockCodec.readVarInt(raw);
+        if (length > raw.remaining()) {
+            throw new IOException("Truncated column in archive block");
+        }
+        ByteBuffer column = raw.slice();
+        column.limit(length);
+        raw.position(raw.position() + length);
+        return column;
+    }
+}
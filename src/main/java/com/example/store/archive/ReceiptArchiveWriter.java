@@ -0,0 +1,168 @@
+package com.example.store.archive;
+
+import com.example.store.model.Receipt;
+import com.example.store.model.ReceiptRecord;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Writes receipts into a compressed, columnar archive. Records are grouped into
+ * blocks; inside a block every field is stored as its own column (receipt
+ * numbers and timestamp seconds delta-encoded with the nanos alongside, IDs,
+ * names and discount descriptions dictionary-coded, money as stotinki varints)
+ * and the block is deflated as a whole. Blocks are self-contained so a reader
+ * can stream them one at a time.
+ */
+public class ReceiptArchiveWriter implements Closeable {
+    static final int DEFAULT_BLOCK_SIZE = 4096;
+
+    private final DataOutputStream out;
+    private final int blockSize;
+    private final List<ReceiptRecord> block;
+    private final Deflater deflater;
+    private long recordCount;
+
+    public ReceiptArchiveWriter(Path file) throws IOException {
+        this(file, DEFAULT_BLOCK_SIZE);
+    }
+
+    public ReceiptArchiveWriter(Path file, int blockSize) throws IOException {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+        this.blockSize = blockSize;
+        this.block = new ArrayList<>(blockSize);
+        this.deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        out.writeInt(BlockCodec.MAGIC);
+    }
+
+    public void append(ReceiptRecord record) throws IOException {
+        block.add(record);
+        recordCount++;
+        if (block.size() == blockSize) {
+            flushBlock();
+        }
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBlock();
+            out.writeInt(0);
+            out.close();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private void flushBlock() throws IOException {
+        if (block.isEmpty()) {
+            return;
+        }
+        byte[] raw = encodeBlock(block);
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 4 + 64);
+        byte[] chunk = new byte[8192];
+        while (!deflater.finished()) {
+            int length = deflater.deflate(chunk);
+            compressed.write(chunk, 0, length);
+        }
+
+        out.writeInt(block.size());
+        out.writeInt(raw.length);
+        out.writeInt(compressed.size());
+        compressed.writeTo(out);
+        block.clear();
+    }
+
+    private static byte[] encodeBlock(List<ReceiptRecord> records) {
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        ByteArrayOutputStream numbers = new ByteArrayOutputStream();
+        ByteArrayOutputStream seconds = new ByteArrayOutputStream();
+        ByteArrayOutputStream nanos = new ByteArrayOutputStream();
+        ByteArrayOutputStream people = new ByteArrayOutputStream();
+        ByteArrayOutputStream totals = new ByteArrayOutputStream();
+        ByteArrayOutputStream itemCounts = new ByteArrayOutputStream();
+        ByteArrayOutputStream products = new ByteArrayOutputStream();
+        ByteArrayOutputStream quantities = new ByteArrayOutputStream();
+        ByteArrayOutputStream prices = new ByteArrayOutputStream();
+        ByteArrayOutputStream discounts = new ByteArrayOutputStream();
+
+        long previousNumber = 0;
+        long previousSecond = 0;
+        for (ReceiptRecord record : records) {
+            BlockCodec.writeSignedVarLong(numbers, record.getReceiptNumber() - previousNumber);
+            previousNumber = record.getReceiptNumber();
+
+            // Local time is stored as if it were UTC, so it reads back unchanged in any zone
+            long second = record.getTimestamp().toEpochSecond(ZoneOffset.UTC);
+            BlockCodec.writeSignedVarLong(seconds, second - previousSecond);
+            previousSecond = second;
+            BlockCodec.writeVarLong(nanos, record.getTimestamp().getNano());
+
+            BlockCodec.writeVarLong(people, intern(record.getCashierId(), dictionary, strings));
+            BlockCodec.writeVarLong(people, intern(record.getCashierName(), dictionary, strings));
+            BlockCodec.writeVarLong(people, intern(record.getRegisterId(), dictionary, strings));
+            BlockCodec.writeSignedVarLong(totals, record.getTotalAmountMinor());
+            BlockCodec.writeVarLong(itemCounts, record.getItems().size());
+
+            for (ReceiptRecord.Item item : record.getItems()) {
+                BlockCodec.writeVarLong(products, intern(item.getProductId(), dictionary, strings));
+                BlockCodec.writeVarLong(products, intern(item.getProductName(), dictionary, strings));
+                BlockCodec.writeVarLong(quantities, item.getQuantity());
+                BlockCodec.writeSignedVarLong(prices, item.getUnitPriceMinor());
+                BlockCodec.writeSignedVarLong(prices, item.getTotalMinor());
+            }
+
+            BlockCodec.writeVarLong(discounts, record.getDiscounts().size());
+            for (Receipt.Discount discount : record.getDiscounts()) {
+                BlockCodec.writeVarLong(discounts, intern(discount.getPromotionId(), dictionary, strings));
+                BlockCodec.writeVarLong(discounts, intern(discount.getDescription(), dictionary, strings));
+                BlockCodec.writeSignedVarLong(discounts, discount.getAmountMinor());
+            }
+        }
+
+        ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        BlockCodec.writeVarLong(raw, strings.size());
+        for (String value : strings) {
+            BlockCodec.writeString(raw, value);
+        }
+        for (ByteArrayOutputStream column : List.of(numbers, seconds, nanos, people, totals,
+                                                     itemCounts, products, quantities, prices, discounts)) {
+            BlockCodec.writeVarLong(raw, column.size());
+            raw.writeBytes(column.toByteArray());
+        }
+        return raw.toByteArray();
+    }
+
+    // Index 0 is reserved for null
+    private static int intern(String value, Map<String, Integer> dictionary, List<String> strings) {
+        if (value == null) {
+            return 0;
+        }
+        return dictionary.computeIfAbsent(value, v -> {
+            strings.add(v);
+            return strings.size();
+        });
+    }
+}
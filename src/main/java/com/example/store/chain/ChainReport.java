@@ -0,0 +1,109 @@
+package com.example.store.chain;
+
+import com.example.store.model.Product;
+import com.example.store.model.Receipt;
+import com.example.store.model.Store;
+import com.example.store.model.StoreSnapshot;
+import com.example.store.util.Money;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mergeable chain-wide totals. Each shard builds a partial report for its own
+ * stores and the partials are merged at headquarters.
+ */
+public class ChainReport {
+    private long totalRevenueMinor;
+    private long totalDeliveryCostsMinor;
+    private long totalSalaryCostsMinor;
+    private long receiptsCount;
+    private final Map<String, StoreSnapshot> storeSnapshots;
+    private final Map<String, List<Product>> expiredProducts;
+    private final Map<String, List<Product>> productsNearExpiration;
+    private final Map<String, Long> quantitySoldByProduct;
+    private final Map<String, Long> revenueMinorByProduct;
+
+    ChainReport() {
+        this.storeSnapshots = new LinkedHashMap<>();
+        this.expiredProducts = new LinkedHashMap<>();
+        this.productsNearExpiration = new LinkedHashMap<>();
+        this.quantitySoldByProduct = new HashMap<>();
+        this.revenueMinorByProduct = new HashMap<>();
+    }
+
+    static ChainReport of(List<Store> stores) {
+        ChainReport report = new ChainReport();
+        for (Store store : stores) {
+            report.add(store);
+        }
+        return report;
+    }
+
+    private void add(Store store) {
+        StoreSnapshot snapshot = store.getSnapshot();
+        storeSnapshots.put(store.getName(), snapshot);
+        totalRevenueMinor += snapshot.getTotalRevenueMinor();
+        totalDeliveryCostsMinor += snapshot.getTotalDeliveryCostsMinor();
+        totalSalaryCostsMinor += snapshot.getTotalSalaryCostsMinor();
+        receiptsCount += snapshot.getReceiptsCount();
+        expiredProducts.put(store.getName(), store.getExpiredProducts());
+        productsNearExpiration.put(store.getName(), store.getProductsNearExpiration());
+
+        // Bounded by the snapshot so totals and per-product figures agree
+        for (Receipt receipt : store.getAllReceipts().subList(0, snapshot.getReceiptsCount())) {
+            for (Receipt.ReceiptItem item : receipt.getItems()) {
+                String productId = item.getProduct().getId();
+                quantitySoldByProduct.merge(productId, (long) item.getQuantity(), Long::sum);
+                revenueMinorByProduct.merge(productId, item.getTotalMinor(), Long::sum);
+            }
+        }
+    }
+
+    ChainReport merge(ChainReport other) {
+        totalRevenueMinor += other.totalRevenueMinor;
+        totalDeliveryCostsMinor += other.totalDeliveryCostsMinor;
+        totalSalaryCostsMinor += other.totalSalaryCostsMinor;
+        receiptsCount += other.receiptsCount;
+        storeSnapshots.putAll(other.storeSnapshots);
+        expiredProducts.putAll(other.expiredProducts);
+        productsNearExpiration.putAll(other.productsNearExpiration);
+        other.quantitySoldByProduct.forEach((id, qty) -> quantitySoldByProduct.merge(id, qty, Long::sum));
+        other.revenueMinorByProduct.forEach((id, revenue) -> revenueMinorByProduct.merge(id, revenue, Long::sum));
+        return this;
+    }
+
+    public double calculateProfit() {
+        return Money.toMajor(totalRevenueMinor - totalDeliveryCostsMinor - totalSalaryCostsMinor);
+    }
+
+    public List<String> getTopSellingProductIds(int limit) {
+        List<String> ids = new ArrayList<>(quantitySoldByProduct.keySet());
+        ids.sort(Comparator.comparing((String id) -> quantitySoldByProduct.get(id)).reversed()
+                           .thenComparing(Comparator.naturalOrder()));
+        return ids.subList(0, Math.min(limit, ids.size()));
+    }
+
+    // Getters
+    public double getTotalRevenue() { return Money.toMajor(totalRevenueMinor); }
+    public double getTotalDeliveryCosts() { return Money.toMajor(totalDeliveryCostsMinor); }
+    public double getTotalSalaryCosts() { return Money.toMajor(totalSalaryCostsMinor); }
+    public long getTotalRevenueMinor() { return totalRevenueMinor; }
+    public long getReceiptsCount() { return receiptsCount; }
+    public Map<String, StoreSnapshot> getStoreSnapshots() { return Collections.unmodifiableMap(storeSnapshots); }
+    public Map<String, List<Product>> getExpiredProducts() { return Collections.unmodifiableMap(expiredProducts); }
+    public Map<String, List<Product>> getProductsNearExpiration() { return Collections.unmodifiableMap(productsNearExpiration); }
+    public Map<String, Long> getQuantitySoldByProduct() { return Collections.unmodifiableMap(quantitySoldByProduct); }
+    public Map<String, Long> getRevenueMinorByProduct() { return Collections.unmodifiableMap(revenueMinorByProduct); }
+
+    public Map<String, Double> getRevenueByProduct() {
+        Map<String, Double> revenue = new HashMap<>();
+        revenueMinorByProduct.forEach((id, minor) -> revenue.put(id, Money.toMajor(minor)));
+        return Collections.unmodifiableMap(revenue);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.store.chain;
+
+import com.example.store.model.CashRegister;
+import com.example.store.model.Product;
+import com.example.store.model.Receipt;
+import com.example.store.model.Store;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chain of branches split across shards. Each shard owns a single thread that
+ * runs the sales of its stores, so branches on different shards sell in
+ * parallel. Headquarters reports scatter one task per shard onto a separate
+ * reporting pool and merge the partial results, so they never queue behind sales.
+ */
+public class StoreChain implements AutoCloseable {
+    private final List<Shard> shards;
+    private final Map<String, Shard> shardByStore;
+    private final ExecutorService reportingPool;
+
+    public StoreChain(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+        this.shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new Shard(i));
+        }
+        this.shardByStore = new ConcurrentHashMap<>();
+        this.reportingPool = Executors.newFixedThreadPool(shardCount, runnable -> {
+            Thread thread = new Thread(runnable, "chain-reporting");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void addStore(Store store) {
+        Shard shard = shards.get(Math.floorMod(store.getName().hashCode(), shards.size()));
+        if (shardByStore.putIfAbsent(store.getName(), shard) != null) {
+            throw new IllegalArgumentException("Store already in chain: " + store.getName());
+        }
+        shard.stores.add(store);
+    }
+
+    public Store getStore(String name) {
+        Shard shard = shardByStore.get(name);
+        if (shard == null) {
+            throw new IllegalArgumentException("Unknown store: " + name);
+        }
+        for (Store store : shard.stores) {
+            if (store.getName().equals(name)) {
+                return store;
+            }
+        }
+        throw new IllegalArgumentException("Unknown store: " + name);
+    }
+
+    public List<Store> getStores() {
+        List<Store> stores = new ArrayList<>();
+        for (Shard shard : shards) {
+            stores.addAll(shard.stores);
+        }
+        return stores;
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    public CompletableFuture<Receipt> submitSale(String storeName, CashRegister register,
+                                                 Map<Product, Integer> items) {
+        Store store = getStore(storeName);
+        return CompletableFuture.supplyAsync(() -> store.processSale(register, items),
+                                             shardByStore.get(storeName).executor);
+    }
+
+    public CompletableFuture<ChainReport> report() {
+        CompletableFuture<ChainReport> result = CompletableFuture.completedFuture(new ChainReport());
+        for (Shard shard : shards) {
+            List<Store> stores = List.copyOf(shard.stores);
+            CompletableFuture<ChainReport> partial =
+                CompletableFuture.supplyAsync(() -> ChainReport.of(stores), reportingPool);
+            result = result.thenCombine(partial, ChainReport::merge);
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        for (Shard shard : shards) {
+            shard.executor.shutdown();
+        }
+        reportingPool.shutdown();
+        try {
+            for (Shard shard : shards) {
+                shard.executor.awaitTermination(10, TimeUnit.SECONDS);
+            }
+            reportingPool.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Shard {
+        private final ExecutorService executor;
+        private final List<Store> stores;
+
+        Shard(int index) {
+            this.executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "store-shard-" + index);
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.stores = new CopyOnWriteArrayList<>();
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.store.export;
+
+import com.example.store.model.Product;
+import com.example.store.model.Store;
+import com.example.store.util.Money;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.function.Predicate;
+
+/**
+ * Streams the priced, sellable catalog as CSV or JSON into a byte channel.
+ * Rows are encoded one at a time through a fixed buffer, so memory use does
+ * not depend on the catalog size.
+ */
+public class CatalogExporter {
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    public enum Format {
+        CSV,
+        JSON
+    }
+
+    private final Store store;
+    private final Format format;
+    private final int bufferSize;
+
+    public CatalogExporter(Store store, Format format) {
+        this(store, format, DEFAULT_BUFFER_SIZE);
+    }
+
+    public CatalogExporter(Store store, Format format, int bufferSize) {
+        if (bufferSize < 16) {
+            throw new IllegalArgumentException("Buffer size must be at least 16 bytes");
+        }
+        this.store = store;
+        this.format = format;
+        this.bufferSize = bufferSize;
+    }
+
+    public long export(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            return export(channel);
+        }
+    }
+
+    public long export(WritableByteChannel channel) throws IOException {
+        return export(channel, product -> true);
+    }
+
+    // Returns the number of exported products
+    public long export(WritableByteChannel channel, Predicate<Product> filter) throws IOException {
+        ChannelWriter writer = new ChannelWriter(channel, bufferSize);
+        StringBuilder row = new StringBuilder(256);
+        long count = 0;
+
+        if (format == Format.CSV) {
+            writer.write(row.append("id,name,category,price,quantity,expirationDate\n"));
+        } else {
+            writer.write(row.append('['));
+        }
+
+        for (Iterator<Product> products = store.sellableProductsIterator(); products.hasNext(); ) {
+            Product product = products.next();
+            if (!filter.test(product)) {
+                continue;
+            }
+            long priceMinor = store.calculateProductPriceMinor(product);
+            row.setLength(0);
+            if (format == Format.CSV) {
+                appendCsvRow(row, product, priceMinor);
+            } else {
+                if (count > 0) {
+                    row.append(',');
+                }
+                appendJsonObject(row, product, priceMinor);
+            }
+            writer.write(row);
+            count++;
+        }
+
+        if (format == Format.JSON) {
+            row.setLength(0);
+            writer.write(row.append("]\n"));
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static void appendCsvRow(StringBuilder row, Product product, long priceMinor) {
+        appendCsvField(row, product.getId());
+        row.append(',');
+        appendCsvField(row, product.getName());
+        row.append(',').append(product.getCategory()).append(',');
+        Money.append(row, priceMinor);
+        row.append(',').append(product.getSellableQuantity())
+           .append(',').append(product.getExpirationDate())
+           .append('\n');
+    }
+
+    private static void appendCsvField(StringBuilder row, String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            row.append(value);
+            return;
+        }
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                row.append('"');
+            }
+            row.append(c);
+        }
+        row.append('"');
+    }
+
+    private static void appendJsonObject(StringBuilder row, Product product, long priceMinor) {
+        row.append("\n{\"id\":");
+        appendJsonString(row, product.getId());
+        row.append(",\"name\":");
+        appendJsonString(row, product.getName());
+        row.append(",\"category\":\"").append(product.getCategory()).append("\",\"price\":");
+        Money.append(row, priceMinor);
+        row.append(",\"quantity\":").append(product.getSellableQuantity())
+           .append(",\"expirationDate\":\"").append(product.getExpirationDate())
+           .append("\"}");
+    }
+
+    private static void appendJsonString(StringBuilder row, String value) {
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> row.append("\\\"");
+                case '\\' -> row.append("\\\\");
+                case '\n' -> row.append("\\n");
+                case '\r' -> row.append("\\r");
+                case '\t' -> row.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        row.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        row.append(c);
+                    }
+                }
+            }
+        }
+        row.append('"');
+    }
+
+    private static final class ChannelWriter {
+        private final WritableByteChannel channel;
+        private final ByteBuffer buffer;
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+
+        ChannelWriter(WritableByteChannel channel, int bufferSize) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        }
+
+        void write(CharSequence text) throws IOException {
+            CharBuffer chars = CharBuffer.wrap(text);
+            while (true) {
+                CoderResult result = encoder.encode(chars, buffer, false);
+                if (result.isOverflow()) {
+                    drain();
+                } else if (result.isUnderflow()) {
+                    return;
+                } else {
+                    result.throwException();
+                }
+            }
+        }
+
+        void flush() throws IOException {
+            encoder.encode(CharBuffer.allocate(0), buffer, true);
+            encoder.flush(buffer);
+            drain();
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.store.feed;
+
+import com.example.store.model.Receipt;
+import com.example.store.model.ReceiptListener;
+import com.example.store.model.ReceiptRecord;
+import com.example.store.model.Store;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Ordered, append-only log of committed receipts. The writer tails the
+ * store's receipt list by position, starting after the last receipt number
+ * already in the log file, and appends batches to the file; the sale path only
+ * wakes it. Nothing is queued, so nothing is dropped: a feed that falls behind,
+ * fails to write or is closed picks up from its durable offset when it retries
+ * or is reopened on the same store. A sparse receipt-number index lets
+ * consumers resume from any offset by reading the file.
+ */
+public class ReceiptFeed implements ReceiptListener, Closeable {
+    private static final int INDEX_INTERVAL = 256;
+    private static final int MAX_BATCH = 1024;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long RETRY_DELAY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Store store;
+    private final Path logFile;
+    private final FileChannel channel;
+    private final ConcurrentSkipListMap<Integer, Long> sparseIndex;
+    private final Object progress = new Object();
+    private final Thread writer;
+
+    private volatile long committedSize;
+    private volatile int lastNumber;
+    private volatile int storePosition;
+    private volatile boolean closed;
+    private volatile IOException writeFailure;
+    private long recordsWritten;
+
+    public ReceiptFeed(Store store, Path logFile) throws IOException {
+        this.store = store;
+        this.logFile = logFile;
+        this.channel = FileChannel.open(logFile, StandardOpenOption.CREATE,
+                                        StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.sparseIndex = new ConcurrentSkipListMap<>();
+        recover();
+
+        // Receipt numbers are the feed offsets, so keep numbering past what is already on disk
+        Receipt.advanceReceiptNumberPast(lastNumber);
+        this.storePosition = firstPositionAfter(store.getAllReceipts(), lastNumber);
+
+        this.writer = new Thread(this::runWriter, "receipt-feed-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        store.addReceiptListener(this);
+    }
+
+    @Override
+    public void onReceiptCommitted(Receipt receipt) {
+        // The receipt is already in the store's list; just wake the writer
+        LockSupport.unpark(writer);
+    }
+
+    // Returns up to maxRecords records with a receipt number greater than afterNumber
+    public List<ReceiptRecord> read(int afterNumber, int maxRecords) throws IOException {
+        List<ReceiptRecord> records = new ArrayList<>();
+        long limit = committedSize;
+        Map.Entry<Integer, Long> start = sparseIndex.floorEntry(afterNumber);
+        long position = start != null ? start.getValue() : 0L;
+
+        try (FileChannel reader = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+            ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+            while (position < limit && records.size() < maxRecords) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), limit - position));
+                int read = reader.read(buffer, position);
+                if (read <= 0) {
+                    break;
+                }
+                position += read;
+                buffer.flip();
+                while (buffer.hasRemaining() && records.size() < maxRecords) {
+                    byte b = buffer.get();
+                    if (b != '\n') {
+                        line.write(b);
+                        continue;
+                    }
+                    ReceiptRecord record = ReceiptRecord.decode(line.toString(StandardCharsets.UTF_8));
+                    line.reset();
+                    if (record.getReceiptNumber() > afterNumber) {
+                        records.add(record);
+                    }
+                }
+            }
+        }
+        return records;
+    }
+
+    // Blocks until a record after afterNumber is durable or the timeout expires
+    public boolean awaitRecordsAfter(int afterNumber, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (progress) {
+            while (lastNumber <= afterNumber) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(progress, remaining);
+            }
+        }
+        return true;
+    }
+
+    public int getLastNumber() {
+        return lastNumber;
+    }
+
+    // Committed receipts the writer has not appended yet
+    public int getPendingCount() {
+        return store.getAllReceipts().size() - storePosition;
+    }
+
+    public IOException getWriteFailure() {
+        return writeFailure;
+    }
+
+    // False while the writer is failing; it keeps retrying from the durable offset
+    public boolean isHealthy() {
+        return writeFailure == null;
+    }
+
+    public Path getLogFile() {
+        return logFile;
+    }
+
+    @Override
+    public void close() throws IOException {
+        store.removeReceiptListener(this);
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        if (writeFailure != null) {
+            throw writeFailure;
+        }
+    }
+
+    // On close, receipts committed so far are written unless the writer is failing
+    private void runWriter() {
+        List<ReceiptRecord> batch = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            List<Receipt> receipts = store.getAllReceipts();
+            int end = Math.min(receipts.size(), storePosition + MAX_BATCH);
+            if (storePosition == end) {
+                if (closed) {
+                    return;
+                }
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+            for (int i = storePosition; i < end; i++) {
+                batch.add(ReceiptRecord.from(receipts.get(i)));
+            }
+            try {
+                if (writeFailure != null) {
+                    channel.truncate(committedSize);
+                }
+                writeBatch(batch, end);
+                writeFailure = null;
+            } catch (IOException e) {
+                writeFailure = e;
+                if (closed) {
+                    return;
+                }
+                // The retry truncates back to the last durable size, so it never duplicates records
+                LockSupport.parkNanos(this, RETRY_DELAY_NANOS);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Receipts are listed in number order, so the feed resumes after the last one already written
+    private static int firstPositionAfter(List<Receipt> receipts, int lastNumber) {
+        int position = receipts.size();
+        while (position > 0 && receipts.get(position - 1).getReceiptNumber() > lastNumber) {
+            position--;
+        }
+        return position;
+    }
+
+    // Advances the store position before the receipt number, so a waiter never sees the two disagree
+    private void writeBatch(List<ReceiptRecord> batch, int end) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(batch.size() * 128);
+        long[] positions = new long[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            positions[i] = committedSize + out.size();
+            out.writeBytes(batch.get(i).encode().getBytes(StandardCharsets.UTF_8));
+            out.write('\n');
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+        long position = committedSize;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        channel.force(false);
+
+        for (int i = 0; i < batch.size(); i++) {
+            if (recordsWritten++ % INDEX_INTERVAL == 0) {
+                sparseIndex.put(batch.get(i).getReceiptNumber(), positions[i]);
+            }
+        }
+        committedSize = position;
+        storePosition = end;
+        lastNumber = batch.get(batch.size() - 1).getReceiptNumber();
+        synchronized (progress) {
+            progress.notifyAll();
+        }
+    }
+
+    // Rebuilds the index from the existing log and drops a torn last line left by a crash
+    private void recover() throws IOException {
+        long size = channel.size();
+        long position = 0;
+        long lineStart = 0;
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            buffer.flip();
+            for (int i = 0; i < read; i++) {
+                byte b = buffer.get();
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+                ReceiptRecord record;
+                try {
+                    record = ReceiptRecord.decode(line.toString(StandardCharsets.UTF_8));
+                } catch (RuntimeException e) {
+                    throw new IOException("Corrupt receipt feed at byte " + lineStart, e);
+                }
+                line.reset();
+                if (recordsWritten++ % INDEX_INTERVAL == 0) {
+                    sparseIndex.put(record.getReceiptNumber(), lineStart);
+                }
+                lastNumber = record.getReceiptNumber();
+                lineStart = position + i + 1;
+            }
+            position += read;
+        }
+        if (lineStart < size) {
+            channel.truncate(lineStart);
+        }
+        committedSize = lineStart;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.store.feed;
+
+import com.example.store.model.ReceiptRecord;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Tails a ReceiptFeed from a durable offset (the last processed receipt number).
+ * Records are delivered at least once: after a restart the consumer resumes
+ * from the last committed offset, not from the last polled record.
+ */
+public class ReceiptFeedConsumer {
+    private final ReceiptFeed feed;
+    private final Path offsetFile;
+    private int committedOffset;
+    private int position;
+
+    public ReceiptFeedConsumer(ReceiptFeed feed, Path offsetFile) throws IOException {
+        this.feed = feed;
+        this.offsetFile = offsetFile;
+        this.committedOffset = Files.exists(offsetFile)
+            ? Integer.parseInt(Files.readString(offsetFile, StandardCharsets.UTF_8).trim())
+            : 0;
+        this.position = committedOffset;
+    }
+
+    public List<ReceiptRecord> poll(int maxBatch) throws IOException {
+        List<ReceiptRecord> records = feed.read(position, maxBatch);
+        if (!records.isEmpty()) {
+            position = records.get(records.size() - 1).getReceiptNumber();
+        }
+        return records;
+    }
+
+    public List<ReceiptRecord> poll(int maxBatch, Duration timeout) throws IOException, InterruptedException {
+        if (!feed.awaitRecordsAfter(position, timeout)) {
+            return List.of();
+        }
+        return poll(maxBatch);
+    }
+
+    public void commit() throws IOException {
+        Path temp = offsetFile.resolveSibling(offsetFile.getFileName() + ".tmp");
+        Files.writeString(temp, Integer.toString(position), StandardCharsets.UTF_8);
+        Files.move(temp, offsetFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        committedOffset = position;
+    }
+
+    public void seek(int receiptNumber) {
+        this.position = receiptNumber;
+    }
+
+    // Getters
+    public int getPosition() { return position; }
+    public int getCommittedOffset() { return committedOffset; }
+    public long getLag() { return Math.max(0, feed.getLastNumber() - position); }
+}
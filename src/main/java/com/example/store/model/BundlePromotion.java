@@ -0,0 +1,72 @@
+package com.example.store.model;
+
+import com.example.store.util.Money;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+// A fixed set of products sold together for a fixed price
+public class BundlePromotion extends Promotion {
+    private final Map<String, Integer> components;
+    private final long bundlePriceMinor;
+
+    public BundlePromotion(String id, String description, Map<String, Integer> components, double bundlePrice) {
+        super(id, description);
+        if (components.isEmpty()) {
+            throw new IllegalArgumentException("Bundle must contain at least one product");
+        }
+        for (int quantity : components.values()) {
+            if (quantity <= 0) {
+                throw new IllegalArgumentException("Bundle quantities must be positive");
+            }
+        }
+        this.components = Collections.unmodifiableMap(new LinkedHashMap<>(components));
+        this.bundlePriceMinor = Money.toMinor(bundlePrice);
+    }
+
+    @Override
+    public Set<String> getProductIds() {
+        return components.keySet();
+    }
+
+    @Override
+    public Product.ProductCategory getCategory() {
+        return null;
+    }
+
+    @Override
+    long apply(Map<String, BasketLine> lines, boolean consume) {
+        int bundles = Integer.MAX_VALUE;
+        for (Map.Entry<String, Integer> component : components.entrySet()) {
+            BasketLine line = lines.get(component.getKey());
+            if (line == null) {
+                return 0;
+            }
+            bundles = Math.min(bundles, line.remaining / component.getValue());
+        }
+        if (bundles == 0) {
+            return 0;
+        }
+        long regularPrice = 0;
+        for (Map.Entry<String, Integer> component : components.entrySet()) {
+            regularPrice += lines.get(component.getKey()).valueOf(bundles * component.getValue());
+        }
+        long discount = regularPrice - bundles * bundlePriceMinor;
+        if (discount <= 0) {
+            return 0;
+        }
+        if (consume) {
+            for (Map.Entry<String, Integer> component : components.entrySet()) {
+                lines.get(component.getKey()).claim(bundles * component.getValue());
+            }
+        }
+        return discount;
+    }
+
+    // Getters
+    public Map<String, Integer> getComponents() { return components; }
+    public double getBundlePrice() { return Money.toMajor(bundlePriceMinor); }
+    public long getBundlePriceMinor() { return bundlePriceMinor; }
+}
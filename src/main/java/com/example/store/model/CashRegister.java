@@ -1,35 +1,51 @@
 package com.example.store.model;
 
+import com.example.store.util.AppendOnlyList;
+
 import java.io.Serializable;
-import java.util.ArrayList;
 import java.util.List;
 
 public class CashRegister implements Serializable {
     private final String id;
-    private Cashier assignedCashier;
-    private final List<Receipt> receipts;
+    private volatile Cashier assignedCashier;
+    private final AppendOnlyList<Receipt> receipts;
 
     public CashRegister(String id) {
         this.id = id;
-        this.receipts = new ArrayList<>();
+        this.receipts = new AppendOnlyList<>();
     }
 
-    public void assignCashier(Cashier cashier) {
+    public synchronized void assignCashier(Cashier cashier) {
         if (this.assignedCashier != null && this.assignedCashier != cashier) {
             throw new IllegalStateException("Cash register already has an assigned cashier");
         }
         this.assignedCashier = cashier;
     }
 
-    public void removeCashier() {
+    public synchronized void removeCashier() {
         this.assignedCashier = null;
     }
 
+    // Leaves the register alone if another cashier has taken it over since
+    synchronized void releaseCashier(Cashier cashier) {
+        if (this.assignedCashier == cashier) {
+            this.assignedCashier = null;
+        }
+    }
+
     public Receipt createReceipt() {
-        if (assignedCashier == null) {
+        return createReceipt(0);
+    }
+
+    // Sizes the receipt's line storage up front when the number of lines is known
+    Receipt createReceipt(int expectedItems) {
+        Cashier cashier = assignedCashier;
+        if (cashier == null) {
             throw new IllegalStateException("Cannot create receipt: no cashier assigned to register");
         }
-        Receipt receipt = new Receipt(assignedCashier);
+        Receipt receipt = expectedItems > 0
+            ? new Receipt(cashier, id, expectedItems)
+            : new Receipt(cashier, id);
         receipts.add(receipt);
         return receipt;
     }
@@ -37,7 +53,7 @@ public class CashRegister implements Serializable {
     // Getters
     public String getId() { return id; }
     public Cashier getAssignedCashier() { return assignedCashier; }
-    public List<Receipt> getReceipts() { return new ArrayList<>(receipts); }
+    public List<Receipt> getReceipts() { return receipts.view(); }
 
     @Override
     public String toString() {
@@ -6,7 +6,7 @@ public class Cashier implements Serializable {
     private final String id;
     private final String name;
     private final double monthlySalary;
-    private CashRegister assignedRegister;
+    private volatile CashRegister assignedRegister;
 
     public Cashier(String id, String name, double monthlySalary) {
         this.id = id;
@@ -14,19 +14,24 @@ public class Cashier implements Serializable {
         this.monthlySalary = monthlySalary;
     }
 
-    public void assignToRegister(CashRegister register) {
-        if (this.assignedRegister != null) {
-            this.assignedRegister.removeCashier();
+    // Claims the new register before leaving the old one, so a failed claim leaves the cashier where it was
+    public synchronized void assignToRegister(CashRegister register) {
+        CashRegister previous = this.assignedRegister;
+        if (previous == register) {
+            return;
         }
-        this.assignedRegister = register;
         if (register != null) {
             register.assignCashier(this);
         }
+        if (previous != null) {
+            previous.releaseCashier(this);
+        }
+        this.assignedRegister = register;
     }
 
-    public void removeFromRegister() {
+    public synchronized void removeFromRegister() {
         if (this.assignedRegister != null) {
-            this.assignedRegister.removeCashier();
+            this.assignedRegister.releaseCashier(this);
             this.assignedRegister = null;
         }
     }
@@ -0,0 +1,47 @@
+package com.example.store.model;
+
+import java.util.Map;
+import java.util.Set;
+
+// Percentage off every product in a category
+public class CategoryPromotion extends Promotion {
+    private final Product.ProductCategory category;
+    private final double percentage;
+
+    public CategoryPromotion(String id, String description, Product.ProductCategory category, double percentage) {
+        super(id, description);
+        if (percentage <= 0 || percentage > 100) {
+            throw new IllegalArgumentException("Percentage must be between 0 and 100");
+        }
+        this.category = category;
+        this.percentage = percentage;
+    }
+
+    @Override
+    public Set<String> getProductIds() {
+        return Set.of();
+    }
+
+    @Override
+    public Product.ProductCategory getCategory() {
+        return category;
+    }
+
+    @Override
+    long apply(Map<String, BasketLine> lines, boolean consume) {
+        long value = 0;
+        for (BasketLine line : lines.values()) {
+            if (line.product.getCategory() == category && line.remaining > 0) {
+                value += line.valueOf(line.remaining);
+                if (consume) {
+                    line.claim(line.remaining);
+                }
+            }
+        }
+        // Rounded once for the whole category, so it never differs from the percentage of the sum
+        return Math.round(value * percentage / 100);
+    }
+
+    // Getters
+    public double getPercentage() { return percentage; }
+}
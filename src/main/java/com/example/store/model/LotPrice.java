@@ -0,0 +1,16 @@
+package com.example.store.model;
+
+// A unit price quoted for one specific lot, in stotinki
+public class LotPrice {
+    private final ProductLot lot;
+    private final long unitPriceMinor;
+
+    public LotPrice(ProductLot lot, long unitPriceMinor) {
+        this.lot = lot;
+        this.unitPriceMinor = unitPriceMinor;
+    }
+
+    // Getters
+    public ProductLot getLot() { return lot; }
+    public long getUnitPriceMinor() { return unitPriceMinor; }
+}
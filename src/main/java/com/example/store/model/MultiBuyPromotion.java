@@ -0,0 +1,51 @@
+package com.example.store.model;
+
+import java.util.Map;
+import java.util.Set;
+
+// "Buy N, pay for M" on a single product, e.g. 3 for 2
+public class MultiBuyPromotion extends Promotion {
+    private final String productId;
+    private final int buyQuantity;
+    private final int payQuantity;
+
+    public MultiBuyPromotion(String id, String description, String productId, int buyQuantity, int payQuantity) {
+        super(id, description);
+        if (buyQuantity <= 0 || payQuantity < 0 || payQuantity >= buyQuantity) {
+            throw new IllegalArgumentException("Pay quantity must be less than buy quantity");
+        }
+        this.productId = productId;
+        this.buyQuantity = buyQuantity;
+        this.payQuantity = payQuantity;
+    }
+
+    @Override
+    public Set<String> getProductIds() {
+        return Set.of(productId);
+    }
+
+    @Override
+    public Product.ProductCategory getCategory() {
+        return null;
+    }
+
+    @Override
+    long apply(Map<String, BasketLine> lines, boolean consume) {
+        BasketLine line = lines.get(productId);
+        if (line == null) {
+            return 0;
+        }
+        int groups = line.remaining / buyQuantity;
+        // The free units are the cheapest of the ones claimed
+        long discount = line.valueOf(groups * (buyQuantity - payQuantity));
+        if (consume) {
+            line.claim(groups * buyQuantity);
+        }
+        return discount;
+    }
+
+    // Getters
+    public String getProductId() { return productId; }
+    public int getBuyQuantity() { return buyQuantity; }
+    public int getPayQuantity() { return payQuantity; }
+}
@@ -9,16 +9,17 @@ public class NonFoodProduct extends Product {
     }
 
     @Override
-    public double calculateSellingPrice(double markupPercentage, 
+    public double calculateSellingPrice(ProductLot lot,
+                                      double markupPercentage, 
                                       int daysUntilDiscount, 
                                       double discountPercentage) {
-        if (isExpired()) {
+        if (lot.isExpired()) {
             throw new IllegalStateException("Cannot calculate price for expired product: " + getName());
         }
 
-        double basePrice = getDeliveryPrice() * (1 + markupPercentage / 100.0);
+        double basePrice = lot.getDeliveryPrice() * (1 + markupPercentage / 100.0);
         
-        if (isNearExpiration(daysUntilDiscount)) {
+        if (lot.isNearExpiration(daysUntilDiscount)) {
             return basePrice * (1 - discountPercentage / 100.0);
         }
         
@@ -1,60 +1,220 @@
 package com.example.store.model;
 
+import com.example.store.util.Today;
+
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
 
 public abstract class Product {
+    // First expiry first out; lots without an expiry date go last
+    private static final Comparator<ProductLot> FEFO =
+        Comparator.comparing(ProductLot::getExpirationDate, Comparator.nullsLast(Comparator.naturalOrder()));
+
     private final String id;
     private final String name;
-    private final double deliveryPrice;
     private final ProductCategory category;
-    private final LocalDate expirationDate;
-    private int quantity;
+    // Min-heap by expiry; the head is the lot sold next. Only the last remaining lot may be empty.
+    // Lots and quantity are guarded by this; quantity is also readable without the lock.
+    private final PriorityQueue<ProductLot> lots;
+    private volatile int quantity;
+    private volatile StockListener stockListener;
 
     public Product(String id, String name, double deliveryPrice, ProductCategory category, 
                   LocalDate expirationDate, int quantity) {
         this.id = id;
         this.name = name;
-        this.deliveryPrice = deliveryPrice;
         this.category = category;
-        this.expirationDate = expirationDate;
+        this.lots = new PriorityQueue<>(FEFO);
+        this.lots.add(new ProductLot(deliveryPrice, expirationDate, quantity));
         this.quantity = quantity;
     }
 
-    public abstract double calculateSellingPrice(double markupPercentage, 
+    // Prices the product as sold from the given lot
+    public abstract double calculateSellingPrice(ProductLot lot,
+                                              double markupPercentage, 
                                               int daysUntilDiscount, 
                                               double discountPercentage);
 
+    // Prices the lot that will be sold next
+    public double calculateSellingPrice(double markupPercentage, 
+                                       int daysUntilDiscount, 
+                                       double discountPercentage) {
+        return calculateSellingPrice(head(), markupPercentage, daysUntilDiscount, discountPercentage);
+    }
+
+    // Expired only once every lot has expired; expired lots are skipped while fresher ones remain
     public boolean isExpired() {
-        return LocalDate.now().isAfter(expirationDate);
+        return isExpired(Today.get());
+    }
+
+    public synchronized boolean isExpired(LocalDate today) {
+        for (ProductLot lot : lots) {
+            if (!lot.isExpired(today)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     public boolean isNearExpiration(int days) {
-        return !isExpired() &&
-               expirationDate != null &&
-               !expirationDate.isBefore(LocalDate.now()) &&
-               !expirationDate.isAfter(LocalDate.now().plusDays(days));
+        return head().isNearExpiration(days);
+    }
+
+    // The lot that will be sold next
+    public ProductLot getNextLot() {
+        return head();
+    }
+
+    // Units in lots that have not expired, i.e. what can still be sold
+    public int getSellableQuantity() {
+        return getSellableQuantity(Today.get());
+    }
+
+    public synchronized int getSellableQuantity(LocalDate today) {
+        if (!lots.peek().isExpired(today)) {
+            return quantity;
+        }
+        int sellable = 0;
+        for (ProductLot lot : lots) {
+            if (!lot.isExpired(today)) {
+                sellable += lot.getQuantity();
+            }
+        }
+        return sellable;
+    }
+
+    private synchronized ProductLot head() {
+        return nextLot(Today.get());
+    }
+
+    // The earliest-expiring lot that has not expired, or the head when all have
+    private ProductLot nextLot(LocalDate today) {
+        ProductLot head = lots.peek();
+        if (!head.isExpired(today)) {
+            return head;
+        }
+        ProductLot next = null;
+        for (ProductLot lot : lots) {
+            if (!lot.isExpired(today) && (next == null || FEFO.compare(lot, next) < 0)) {
+                next = lot;
+            }
+        }
+        return next != null ? next : head;
     }
     
+    public synchronized void addLot(ProductLot lot) {
+        if (lots.peek().getQuantity() == 0) {
+            lots.poll();
+        }
+        lots.add(lot);
+        int oldQuantity = quantity;
+        quantity += lot.getQuantity();
+        notifyStockChanged(oldQuantity);
+    }
 
     public void decreaseQuantity(int amount) {
-        if (amount > quantity) {
-            throw new InsufficientStockException(this, amount - quantity);
+        takeFromLots(amount, Today.get(), (lot, taken) -> { });
+    }
+
+    /**
+     * Takes units from the lots that have not expired, earliest expiry first,
+     * and reports each lot before its units are taken. Expired lots are left
+     * in place for discardExpiredLots.
+     */
+    public synchronized void takeFromLots(int amount, LocalDate today, LotConsumer consumer) {
+        int available = getSellableQuantity(today);
+        if (amount > available) {
+            throw new InsufficientStockException(this, amount - available);
+        }
+        if (amount <= 0) {
+            return;
+        }
+        // Expired lots always sort first, so set them aside while the fresh ones are drawn down
+        List<ProductLot> expired = null;
+        while (lots.peek().isExpired(today)) {
+            if (expired == null) {
+                expired = new ArrayList<>(2);
+            }
+            expired.add(lots.poll());
+        }
+        int oldQuantity = quantity;
+        int remaining = amount;
+        try {
+            while (remaining > 0) {
+                ProductLot head = lots.peek();
+                int taking = Math.min(remaining, head.getQuantity());
+                consumer.accept(head, taking);
+                remaining -= head.take(taking);
+                if (head.getQuantity() == 0 && (lots.size() > 1 || expired != null)) {
+                    lots.poll();
+                }
+            }
+        } finally {
+            if (expired != null) {
+                lots.addAll(expired);
+            }
+            quantity -= amount - remaining;
+            notifyStockChanged(oldQuantity);
         }
-        quantity -= amount;
     }
 
-    public void increaseQuantity(int amount) {
+    // Adds to the lot that is sold next; a delivery with its own price or expiry goes through addLot
+    public synchronized void increaseQuantity(int amount) {
+        int oldQuantity = quantity;
+        nextLot(Today.get()).add(amount);
         quantity += amount;
+        notifyStockChanged(oldQuantity);
+    }
+
+    // Removes the stock of every lot that expired before today and returns the units removed
+    public synchronized int discardExpiredLots(LocalDate today) {
+        int oldQuantity = quantity;
+        while (lots.peek().isExpired(today) && lots.peek().getQuantity() > 0) {
+            ProductLot head = lots.peek();
+            quantity -= head.take(head.getQuantity());
+            if (lots.size() > 1) {
+                lots.poll();
+            }
+        }
+        notifyStockChanged(oldQuantity);
+        return oldQuantity - quantity;
+    }
+
+    // Lots in the order they will be sold
+    public synchronized List<ProductLot> getLots() {
+        List<ProductLot> sorted = new ArrayList<>(lots);
+        sorted.sort(FEFO);
+        return sorted;
+    }
+
+    void setStockListener(StockListener stockListener) {
+        this.stockListener = stockListener;
+    }
+
+    private void notifyStockChanged(int oldQuantity) {
+        StockListener listener = stockListener;
+        if (listener != null && oldQuantity != quantity) {
+            listener.onStockChanged(this, oldQuantity, quantity);
+        }
     }
 
     // Getters
     public String getId() { return id; }
     public String getName() { return name; }
-    public double getDeliveryPrice() { return deliveryPrice; }
+    public double getDeliveryPrice() { return head().getDeliveryPrice(); }
+    public long getDeliveryPriceMinor() { return head().getDeliveryPriceMinor(); }
     public ProductCategory getCategory() { return category; }
-    public LocalDate getExpirationDate() { return expirationDate; }
+    public LocalDate getExpirationDate() { return head().getExpirationDate(); }
     public int getQuantity() { return quantity; }
 
+    @FunctionalInterface
+    public interface LotConsumer {
+        void accept(ProductLot lot, int quantity);
+    }
+
     public enum ProductCategory {
         FOOD,
         NON_FOOD
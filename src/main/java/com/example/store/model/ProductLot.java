@@ -0,0 +1,57 @@
+package com.example.store.model;
+
+import com.example.store.util.Money;
+import com.example.store.util.Today;
+
+import java.time.LocalDate;
+
+// One delivery of a product, with its own delivery price and expiry
+public class ProductLot {
+    private final long deliveryPriceMinor;
+    private final LocalDate expirationDate;
+    // Changed only under the owning product's lock
+    private volatile int quantity;
+
+    public ProductLot(double deliveryPrice, LocalDate expirationDate, int quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Lot quantity cannot be negative");
+        }
+        this.deliveryPriceMinor = Money.toMinor(deliveryPrice);
+        this.expirationDate = expirationDate;
+        this.quantity = quantity;
+    }
+
+    public boolean isExpired() {
+        return isExpired(Today.get());
+    }
+
+    public boolean isExpired(LocalDate today) {
+        return expirationDate != null && today.isAfter(expirationDate);
+    }
+
+    public boolean isNearExpiration(int days) {
+        if (expirationDate == null) {
+            return false;
+        }
+        // Compare epoch days so the check does not allocate on the sale path
+        long today = Today.get().toEpochDay();
+        long expiry = expirationDate.toEpochDay();
+        return today <= expiry && expiry <= today + days;
+    }
+
+    int take(int amount) {
+        int taken = Math.min(amount, quantity);
+        quantity -= taken;
+        return taken;
+    }
+
+    void add(int amount) {
+        quantity += amount;
+    }
+
+    // Getters
+    public double getDeliveryPrice() { return Money.toMajor(deliveryPriceMinor); }
+    public long getDeliveryPriceMinor() { return deliveryPriceMinor; }
+    public LocalDate getExpirationDate() { return expirationDate; }
+    public int getQuantity() { return quantity; }
+}
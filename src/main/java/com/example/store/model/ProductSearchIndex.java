@@ -0,0 +1,71 @@
+package com.example.store.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Sorted prefix index over product IDs and names. Keys are lower-cased with
+ * the root locale (which also folds Cyrillic) and suffixed with the product
+ * ID, so a prefix lookup is a range scan that stops after the first k hits.
+ */
+public class ProductSearchIndex implements Serializable {
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final ConcurrentSkipListMap<String, Product> prefixIndex;
+    private final Map<String, Product> byId;
+
+    public ProductSearchIndex() {
+        this.prefixIndex = new ConcurrentSkipListMap<>();
+        this.byId = new ConcurrentHashMap<>();
+    }
+
+    public void add(Product product) {
+        byId.put(product.getId(), product);
+        prefixIndex.put(key(product.getId(), product), product);
+        prefixIndex.put(key(product.getName(), product), product);
+    }
+
+    public Product findById(String id) {
+        return byId.get(id);
+    }
+
+    public List<Product> findByPrefix(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Set<Product> matches = new LinkedHashSet<>();
+        ConcurrentNavigableMap<String, Product> tail = prefixIndex.tailMap(normalized, true);
+        for (Map.Entry<String, Product> entry : tail.entrySet()) {
+            if (!entry.getKey().startsWith(normalized)) {
+                break;
+            }
+            matches.add(entry.getValue());
+            if (matches.size() == limit) {
+                break;
+            }
+        }
+        return new ArrayList<>(matches);
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    private static String key(String text, Product product) {
+        return normalize(text) + KEY_SEPARATOR + product.getId();
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+}
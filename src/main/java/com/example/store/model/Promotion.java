@@ -0,0 +1,92 @@
+package com.example.store.model;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
+public abstract class Promotion implements Serializable {
+    private final String id;
+    private final String description;
+
+    protected Promotion(String id, String description) {
+        this.id = id;
+        this.description = description;
+    }
+
+    // Product IDs this promotion is indexed under; empty for category-wide promotions
+    public abstract Set<String> getProductIds();
+
+    // Category this promotion is indexed under, or null
+    public abstract Product.ProductCategory getCategory();
+
+    /**
+     * Returns the discount in stotinki this promotion gives on the units still
+     * unclaimed in the basket. With consume set, the units it uses are claimed
+     * so no other promotion can discount them again.
+     */
+    abstract long apply(Map<String, BasketLine> lines, boolean consume);
+
+    // Getters
+    public String getId() { return id; }
+    public String getDescription() { return description; }
+
+    /**
+     * All units of one product in the basket during promotion evaluation. A
+     * product sold from several lots keeps each lot's unit price, and units are
+     * claimed cheapest first, so every discount is an exact sum of receipt prices.
+     */
+    static class BasketLine {
+        final Product product;
+        private long[] unitPricesMinor = new long[2];
+        private int[] quantities = new int[2];
+        private int slices;
+        private int total;
+        int remaining;
+
+        BasketLine(Product product) {
+            this.product = product;
+        }
+
+        // Slices stay sorted by unit price
+        void add(long unitPriceMinor, int quantity) {
+            int at = 0;
+            while (at < slices && unitPricesMinor[at] < unitPriceMinor) {
+                at++;
+            }
+            if (at < slices && unitPricesMinor[at] == unitPriceMinor) {
+                quantities[at] += quantity;
+            } else {
+                if (slices == unitPricesMinor.length) {
+                    unitPricesMinor = Arrays.copyOf(unitPricesMinor, slices * 2);
+                    quantities = Arrays.copyOf(quantities, slices * 2);
+                }
+                System.arraycopy(unitPricesMinor, at, unitPricesMinor, at + 1, slices - at);
+                System.arraycopy(quantities, at, quantities, at + 1, slices - at);
+                unitPricesMinor[at] = unitPriceMinor;
+                quantities[at] = quantity;
+                slices++;
+            }
+            total += quantity;
+            remaining += quantity;
+        }
+
+        // Price of the cheapest units still unclaimed
+        long valueOf(int units) {
+            int skip = total - remaining;
+            long value = 0;
+            for (int i = 0; i < slices && units > 0; i++) {
+                int available = quantities[i] - Math.min(skip, quantities[i]);
+                skip -= quantities[i] - available;
+                int taken = Math.min(available, units);
+                value += taken * unitPricesMinor[i];
+                units -= taken;
+            }
+            return value;
+        }
+
+        void claim(int units) {
+            remaining -= units;
+        }
+    }
+}
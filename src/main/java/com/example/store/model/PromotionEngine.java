@@ -0,0 +1,120 @@
+package com.example.store.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Active promotions indexed by product ID and by category. A basket only looks
+ * up the promotions for its own lines, so the number of promotions in the
+ * catalog does not affect the cost of a sale. Promotions are applied greedily,
+ * largest discount first, and each unit can be discounted by one promotion only.
+ */
+public class PromotionEngine implements Serializable {
+    private final Map<String, List<Promotion>> byProduct;
+    private final Map<Product.ProductCategory, List<Promotion>> byCategory;
+    // The indexes only hold promotions in this set, so it also answers isEmpty() cheaply
+    private final Set<Promotion> active;
+
+    public PromotionEngine() {
+        this.byProduct = new ConcurrentHashMap<>();
+        this.byCategory = new ConcurrentHashMap<>();
+        this.active = ConcurrentHashMap.newKeySet();
+    }
+
+    // Adding a promotion that is already active changes nothing
+    public synchronized void addPromotion(Promotion promotion) {
+        if (!active.add(promotion)) {
+            return;
+        }
+        for (String productId : promotion.getProductIds()) {
+            byProduct.computeIfAbsent(productId, id -> new CopyOnWriteArrayList<>()).add(promotion);
+        }
+        if (promotion.getCategory() != null) {
+            byCategory.computeIfAbsent(promotion.getCategory(), c -> new CopyOnWriteArrayList<>()).add(promotion);
+        }
+    }
+
+    public synchronized void removePromotion(Promotion promotion) {
+        if (!active.remove(promotion)) {
+            return;
+        }
+        for (String productId : promotion.getProductIds()) {
+            List<Promotion> promotions = byProduct.get(productId);
+            if (promotions != null) {
+                promotions.remove(promotion);
+            }
+        }
+        if (promotion.getCategory() != null) {
+            List<Promotion> promotions = byCategory.get(promotion.getCategory());
+            if (promotions != null) {
+                promotions.remove(promotion);
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return active.isEmpty();
+    }
+
+    public List<Receipt.Discount> evaluate(List<Receipt.ReceiptItem> items) {
+        if (isEmpty()) {
+            return List.of();
+        }
+        Map<String, Promotion.BasketLine> lines = new HashMap<>();
+        Set<Promotion> candidates = new LinkedHashSet<>();
+        Map<Product.ProductCategory, Boolean> seenCategories = new EnumMap<>(Product.ProductCategory.class);
+        for (Receipt.ReceiptItem item : items) {
+            Product product = item.getProduct();
+            // A product sold from several lots has one receipt line per lot; promotions see one
+            // basket line that keeps each lot's price
+            Promotion.BasketLine line = lines.get(product.getId());
+            if (line != null) {
+                line.add(item.getUnitPriceMinor(), item.getQuantity());
+                continue;
+            }
+            line = new Promotion.BasketLine(product);
+            line.add(item.getUnitPriceMinor(), item.getQuantity());
+            lines.put(product.getId(), line);
+            List<Promotion> forProduct = byProduct.get(product.getId());
+            if (forProduct != null) {
+                candidates.addAll(forProduct);
+            }
+            if (seenCategories.put(product.getCategory(), Boolean.TRUE) == null) {
+                List<Promotion> forCategory = byCategory.get(product.getCategory());
+                if (forCategory != null) {
+                    candidates.addAll(forCategory);
+                }
+            }
+        }
+
+        List<Receipt.Discount> discounts = new ArrayList<>();
+        while (!candidates.isEmpty()) {
+            Promotion best = null;
+            long bestDiscount = 0;
+            for (Promotion promotion : candidates) {
+                long discount = promotion.apply(lines, false);
+                if (discount > bestDiscount) {
+                    best = promotion;
+                    bestDiscount = discount;
+                }
+            }
+            if (best == null) {
+                break;
+            }
+            long discount = best.apply(lines, true);
+            if (discount > 0) {
+                discounts.add(new Receipt.Discount(best.getId(), best.getDescription(), discount));
+            }
+            candidates.remove(best);
+        }
+        return discounts;
+    }
+}
@@ -1,84 +1,280 @@
 package com.example.store.model;
 
+import com.example.store.util.Money;
+import com.example.store.util.Today;
+
 import java.io.Serializable;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Receipt implements Serializable {
-    private static int nextReceiptNumber = 1;
+    private static final AtomicInteger nextReceiptNumber = new AtomicInteger(1);
+    private static final int DEFAULT_ITEM_CAPACITY = 4;
+
     private final int receiptNumber;
     private final Cashier cashier;
+    private final String registerId;
+    private final Instant instant;
+    // Local wall-clock time for display; it repeats an hour when clocks go back, so order by instant
     private final LocalDateTime timestamp;
-    private final List<ReceiptItem> items;
-    private double totalAmount;
+    // Lines are stored column-wise; ReceiptItem objects are only created when read through getItems()
+    private Product[] itemProducts;
+    private int[] itemQuantities;
+    private long[] itemUnitPricesMinor;
+    private long[] itemTotalsMinor;
+    // Delivery cost of the units on each line, taken from the lots they came from
+    private long[] itemCostsMinor;
+    private int itemCount;
+    private List<Discount> discounts;
+    // Amounts are kept in stotinki; the double getters are views for existing callers
+    private long totalAmountMinor;
 
     public static void resetReceiptNumber() {
-        nextReceiptNumber = 1;
+        nextReceiptNumber.set(1);
+    }
+
+    public static void advanceReceiptNumberPast(int receiptNumber) {
+        nextReceiptNumber.accumulateAndGet(receiptNumber + 1, Math::max);
     }
 
     public Receipt(Cashier cashier) {
-        this.receiptNumber = nextReceiptNumber++;
+        this(cashier, null);
+    }
+
+    public Receipt(Cashier cashier, String registerId) {
+        this(cashier, registerId, DEFAULT_ITEM_CAPACITY);
+    }
+
+    Receipt(Cashier cashier, String registerId, int itemCapacity) {
+        this(cashier, registerId, itemCapacity, Instant.now(), ZoneId.systemDefault());
+    }
+
+    Receipt(Cashier cashier, String registerId, int itemCapacity, Instant instant, ZoneId zone) {
+        this.receiptNumber = nextReceiptNumber.getAndIncrement();
         this.cashier = cashier;
-        this.timestamp = LocalDateTime.now();
-        this.items = new ArrayList<>();
-        this.totalAmount = 0.0;
+        this.registerId = registerId;
+        this.instant = instant;
+        this.timestamp = LocalDateTime.ofInstant(instant, zone);
+        this.itemProducts = new Product[itemCapacity];
+        this.itemQuantities = new int[itemCapacity];
+        this.itemUnitPricesMinor = new long[itemCapacity];
+        this.itemTotalsMinor = new long[itemCapacity];
+        this.itemCostsMinor = new long[itemCapacity];
+        this.discounts = Collections.emptyList();
+        this.totalAmountMinor = 0;
     }
 
     public void addItem(Product product, int quantity, double unitPrice) {
+        addItemMinor(product, quantity, Money.toMinor(unitPrice));
+    }
+
+    // One line at the given price, however many lots the units are drawn from
+    public void addItemMinor(Product product, int quantity, long unitPriceMinor) {
+        checkNotExpired(product);
+        long[] costMinor = new long[1];
+        product.takeFromLots(quantity, Today.get(),
+                             (lot, taken) -> costMinor[0] += lot.getDeliveryPriceMinor() * taken);
+        addLine(product, quantity, unitPriceMinor, costMinor[0]);
+    }
+
+    // One line per lot drawn from, each priced for its own lot
+    void addItemFromLots(Product product, int quantity, LotPricer pricer) {
+        checkNotExpired(product);
+        product.takeFromLots(quantity, Today.get(), (lot, taken) ->
+            addLine(product, taken, pricer.unitPriceMinor(product, lot), lot.getDeliveryPriceMinor() * taken));
+    }
+
+    private static void checkNotExpired(Product product) {
         if (product.isExpired()) {
             throw new IllegalStateException("Cannot add expired product to receipt: " + product.getName());
         }
-        
-        product.decreaseQuantity(quantity);
-        double itemTotal = unitPrice * quantity;
-        items.add(new ReceiptItem(product, quantity, unitPrice, itemTotal));
-        totalAmount += itemTotal;
+    }
+
+    private void addLine(Product product, int quantity, long unitPriceMinor, long costMinor) {
+        if (itemCount == itemProducts.length) {
+            int capacity = Math.max(DEFAULT_ITEM_CAPACITY, itemCount * 2);
+            itemProducts = Arrays.copyOf(itemProducts, capacity);
+            itemQuantities = Arrays.copyOf(itemQuantities, capacity);
+            itemUnitPricesMinor = Arrays.copyOf(itemUnitPricesMinor, capacity);
+            itemTotalsMinor = Arrays.copyOf(itemTotalsMinor, capacity);
+            itemCostsMinor = Arrays.copyOf(itemCostsMinor, capacity);
+        }
+        long itemTotalMinor = unitPriceMinor * quantity;
+        itemProducts[itemCount] = product;
+        itemQuantities[itemCount] = quantity;
+        itemUnitPricesMinor[itemCount] = unitPriceMinor;
+        itemTotalsMinor[itemCount] = itemTotalMinor;
+        itemCostsMinor[itemCount] = costMinor;
+        itemCount++;
+        totalAmountMinor += itemTotalMinor;
+    }
+
+    public void addDiscount(Discount discount) {
+        if (discounts.isEmpty()) {
+            discounts = new ArrayList<>(2);
+        }
+        discounts.add(discount);
+        totalAmountMinor -= discount.getAmountMinor();
     }
 
     public String generateReceiptText() {
-        StringBuilder sb = new StringBuilder();
+        return appendText(new StringBuilder(256)).toString();
+    }
+
+    public StringBuilder appendText(StringBuilder sb) {
         sb.append("Касов бон #").append(receiptNumber).append("\n");
-        sb.append("Дата: ").append(timestamp).append("\n");
+        appendTimestamp(sb.append("Дата: ")).append("\n");
         sb.append("Касиер: ").append(cashier.getName()).append("\n");
         sb.append("Продукти:\n");
         
-        for (ReceiptItem item : items) {
-            sb.append(String.format("- %s x%d @ %.2f лв. = %.2f лв.\n",
-                item.getProduct().getName(),
-                item.getQuantity(),
-                item.getUnitPrice(),
-                item.getTotal()));
+        for (int i = 0; i < itemCount; i++) {
+            sb.append("- ").append(itemProducts[i].getName())
+              .append(" x").append(itemQuantities[i]).append(" @ ");
+            Money.append(sb, itemUnitPricesMinor[i]).append(" лв. = ");
+            Money.append(sb, itemTotalsMinor[i]).append(" лв.\n");
+        }
+
+        for (Discount discount : discounts) {
+            sb.append("Отстъпка: ").append(discount.getDescription()).append(" -");
+            Money.append(sb, discount.getAmountMinor()).append(" лв.\n");
         }
         
-        sb.append("Общо: ").append(String.format("%.2f лв.", totalAmount));
-        return sb.toString();
+        sb.append("Общо: ");
+        return Money.append(sb, totalAmountMinor).append(" лв.");
+    }
+
+    // Same text as LocalDateTime.toString(), without the intermediate String
+    private StringBuilder appendTimestamp(StringBuilder sb) {
+        sb.append(timestamp.getYear()).append('-');
+        appendTwoDigits(sb, timestamp.getMonthValue()).append('-');
+        appendTwoDigits(sb, timestamp.getDayOfMonth()).append('T');
+        appendTwoDigits(sb, timestamp.getHour()).append(':');
+        appendTwoDigits(sb, timestamp.getMinute());
+        int second = timestamp.getSecond();
+        int nano = timestamp.getNano();
+        if (second > 0 || nano > 0) {
+            appendTwoDigits(sb.append(':'), second);
+            if (nano > 0) {
+                sb.append('.');
+                if (nano % 1_000_000 == 0) {
+                    appendPadded(sb, nano / 1_000_000, 100);
+                } else if (nano % 1_000 == 0) {
+                    appendPadded(sb, nano / 1_000, 100_000);
+                } else {
+                    appendPadded(sb, nano, 100_000_000);
+                }
+            }
+        }
+        return sb;
+    }
+
+    private static StringBuilder appendTwoDigits(StringBuilder sb, int value) {
+        return appendPadded(sb, value, 10);
+    }
+
+    private static StringBuilder appendPadded(StringBuilder sb, int value, int width) {
+        for (int digit = width; digit > 1 && value < digit; digit /= 10) {
+            sb.append('0');
+        }
+        return sb.append(value);
     }
 
     // Getters
     public int getReceiptNumber() { return receiptNumber; }
     public Cashier getCashier() { return cashier; }
+    public String getRegisterId() { return registerId; }
+    public Instant getInstant() { return instant; }
     public LocalDateTime getTimestamp() { return timestamp; }
-    public List<ReceiptItem> getItems() { return new ArrayList<>(items); }
-    public double getTotalAmount() { return totalAmount; }
+    public List<ReceiptItem> getItems() { return new ItemsView(); }
+    public int getItemCount() { return itemCount; }
+    public Product getItemProduct(int index) { return itemProducts[checkItemIndex(index)]; }
+    public int getItemQuantity(int index) { return itemQuantities[checkItemIndex(index)]; }
+    public long getItemUnitPriceMinor(int index) { return itemUnitPricesMinor[checkItemIndex(index)]; }
+    public long getItemTotalMinor(int index) { return itemTotalsMinor[checkItemIndex(index)]; }
+    public long getItemCostMinor(int index) { return itemCostsMinor[checkItemIndex(index)]; }
+    public List<Discount> getDiscounts() { return Collections.unmodifiableList(discounts); }
+    public double getTotalAmount() { return Money.toMajor(totalAmountMinor); }
+    public long getTotalAmountMinor() { return totalAmountMinor; }
+
+    private int checkItemIndex(int index) {
+        if (index < 0 || index >= itemCount) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", items: " + itemCount);
+        }
+        return index;
+    }
+
+    private final class ItemsView extends AbstractList<ReceiptItem> implements RandomAccess {
+        @Override
+        public ReceiptItem get(int index) {
+            checkItemIndex(index);
+            return new ReceiptItem(itemProducts[index], itemQuantities[index],
+                                   itemUnitPricesMinor[index], itemTotalsMinor[index], itemCostsMinor[index]);
+        }
+
+        @Override
+        public int size() {
+            return itemCount;
+        }
+    }
 
     public static class ReceiptItem implements Serializable {
         private final Product product;
         private final int quantity;
-        private final double unitPrice;
-        private final double total;
+        private final long unitPriceMinor;
+        private final long totalMinor;
+        private final long costMinor;
 
         public ReceiptItem(Product product, int quantity, double unitPrice, double total) {
+            this(product, quantity, Money.toMinor(unitPrice), Money.toMinor(total), 0);
+        }
+
+        ReceiptItem(Product product, int quantity, long unitPriceMinor, long totalMinor, long costMinor) {
             this.product = product;
             this.quantity = quantity;
-            this.unitPrice = unitPrice;
-            this.total = total;
+            this.unitPriceMinor = unitPriceMinor;
+            this.totalMinor = totalMinor;
+            this.costMinor = costMinor;
         }
 
         // Getters
         public Product getProduct() { return product; }
         public int getQuantity() { return quantity; }
-        public double getUnitPrice() { return unitPrice; }
-        public double getTotal() { return total; }
+        public double getUnitPrice() { return Money.toMajor(unitPriceMinor); }
+        public double getTotal() { return Money.toMajor(totalMinor); }
+        public long getUnitPriceMinor() { return unitPriceMinor; }
+        public long getTotalMinor() { return totalMinor; }
+        public long getCostMinor() { return costMinor; }
+    }
+
+    // Unit price for units sold from a particular lot
+    @FunctionalInterface
+    interface LotPricer {
+        long unitPriceMinor(Product product, ProductLot lot);
+    }
+
+    public static class Discount implements Serializable {
+        private final String promotionId;
+        private final String description;
+        private final long amountMinor;
+
+        public Discount(String promotionId, String description, long amountMinor) {
+            this.promotionId = promotionId;
+            this.description = description;
+            this.amountMinor = amountMinor;
+        }
+
+        // Getters
+        public String getPromotionId() { return promotionId; }
+        public String getDescription() { return description; }
+        public double getAmount() { return Money.toMajor(amountMinor); }
+        public long getAmountMinor() { return amountMinor; }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,33 @@
+package com.example.store.model;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Reusable holder for the result of a basket sale. The receipt text is
+ * rendered into the same StringBuilder every time, so printing or saving a
+ * receipt does not build a new String per sale.
+ */
+public class ReceiptBuffer {
+    private final StringBuilder text;
+    private Receipt receipt;
+
+    public ReceiptBuffer() {
+        this.text = new StringBuilder(1024);
+    }
+
+    void fill(Receipt receipt) {
+        this.receipt = receipt;
+        text.setLength(0);
+        receipt.appendText(text);
+    }
+
+    public void writeTo(Writer writer) throws IOException {
+        writer.append(text);
+    }
+
+    // Getters
+    public Receipt getReceipt() { return receipt; }
+    public long getTotalAmountMinor() { return receipt.getTotalAmountMinor(); }
+    public CharSequence getText() { return text; }
+}
@@ -0,0 +1,137 @@
+package com.example.store.model;
+
+import com.example.store.util.IntPostings;
+import com.example.store.util.LongPostings;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Secondary indexes over the store's receipt list. Each inverted index maps a
+ * cashier, register or product ID to the ascending positions of its receipts.
+ * The time index keeps one key per position: the receipt's instant, raised to
+ * the previous key if the clock stepped back, so the keys stay sorted and a
+ * time range is a binary search. Local query bounds are resolved in the store's
+ * zone; a time repeated when clocks go back means its first occurrence. Queries
+ * walk the shortest posting list and probe the others, so cost follows the
+ * smallest candidate set.
+ */
+public class ReceiptIndex implements Serializable {
+    private final Map<String, IntPostings> byCashier;
+    private final Map<String, IntPostings> byRegister;
+    private final Map<String, IntPostings> byProduct;
+    private final LongPostings timeKeys;
+    private final ZoneId zone;
+
+    public ReceiptIndex() {
+        this(ZoneId.systemDefault());
+    }
+
+    ReceiptIndex(ZoneId zone) {
+        this.byCashier = new ConcurrentHashMap<>();
+        this.byRegister = new ConcurrentHashMap<>();
+        this.byProduct = new ConcurrentHashMap<>();
+        this.timeKeys = new LongPostings();
+        this.zone = zone;
+    }
+
+    // Positions must be added in ascending order
+    public void add(int position, Receipt receipt) {
+        timeKeys.add(Math.max(timeKeys.last(), timeKey(receipt.getInstant())));
+        append(byCashier, receipt.getCashier().getId(), position);
+        if (receipt.getRegisterId() != null) {
+            append(byRegister, receipt.getRegisterId(), position);
+        }
+        for (int i = 0; i < receipt.getItemCount(); i++) {
+            append(byProduct, receipt.getItemProduct(i).getId(), position);
+        }
+    }
+
+    private static void append(Map<String, IntPostings> index, String key, int position) {
+        IntPostings postings = index.computeIfAbsent(key, k -> new IntPostings());
+        if (postings.last() != position) {
+            postings.add(position);
+        }
+    }
+
+    public List<Receipt> find(ReceiptQuery query, List<Receipt> receipts) {
+        // The index may already cover receipts committed after the caller took its view, so stay within it
+        int size = receipts.size();
+        int from = query.getFrom() != null ? Math.min(lowerBound(query.getFrom()), size) : 0;
+        int to = query.getTo() != null ? Math.min(lowerBound(query.getTo()), size) : size;
+        if (from >= to) {
+            return List.of();
+        }
+
+        List<IntPostings> lists = new ArrayList<>(3);
+        if (!collect(byCashier, query.getCashierId(), lists)
+                || !collect(byRegister, query.getRegisterId(), lists)
+                || !collect(byProduct, query.getProductId(), lists)) {
+            return List.of();
+        }
+        if (lists.isEmpty()) {
+            return receipts.subList(from, to);
+        }
+        lists.sort(Comparator.comparingInt(IntPostings::size));
+
+        IntPostings driver = lists.get(0);
+        int[] limits = new int[lists.size()];
+        int[] cursors = new int[lists.size()];
+        for (int i = 0; i < lists.size(); i++) {
+            limits[i] = lists.get(i).lowerBound(size, 0, lists.get(i).size());
+            cursors[i] = lists.get(i).lowerBound(from, 0, limits[i]);
+        }
+
+        List<Receipt> result = new ArrayList<>();
+        for (int d = cursors[0]; d < limits[0]; d++) {
+            int position = driver.get(d);
+            if (position >= to) {
+                break;
+            }
+            if (containsInAll(lists, cursors, limits, position)) {
+                result.add(receipts.get(position));
+            }
+        }
+        return result;
+    }
+
+    private static boolean collect(Map<String, IntPostings> index, String key, List<IntPostings> lists) {
+        if (key == null) {
+            return true;
+        }
+        IntPostings postings = index.get(key);
+        if (postings == null) {
+            return false;
+        }
+        lists.add(postings);
+        return true;
+    }
+
+    // Cursors only move forward because driver positions are ascending
+    private static boolean containsInAll(List<IntPostings> lists, int[] cursors, int[] limits, int position) {
+        for (int i = 1; i < lists.size(); i++) {
+            IntPostings postings = lists.get(i);
+            cursors[i] = postings.lowerBound(position, cursors[i], limits[i]);
+            if (cursors[i] == limits[i] || postings.get(cursors[i]) != position) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Position of the first receipt at or after the given local time
+    public int lowerBound(LocalDateTime time) {
+        return timeKeys.lowerBound(timeKey(time.atZone(zone).toInstant()), 0, timeKeys.size());
+    }
+
+    private static long timeKey(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+}
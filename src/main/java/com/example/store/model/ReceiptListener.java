@@ -0,0 +1,6 @@
+package com.example.store.model;
+
+public interface ReceiptListener {
+    // Called under the store lock in receipt number order; implementations must not block
+    void onReceiptCommitted(Receipt receipt);
+}
@@ -0,0 +1,40 @@
+package com.example.store.model;
+
+import java.time.LocalDateTime;
+
+public class ReceiptQuery {
+    private String cashierId;
+    private String registerId;
+    private String productId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    public ReceiptQuery cashier(String cashierId) {
+        this.cashierId = cashierId;
+        return this;
+    }
+
+    public ReceiptQuery register(String registerId) {
+        this.registerId = registerId;
+        return this;
+    }
+
+    public ReceiptQuery product(String productId) {
+        this.productId = productId;
+        return this;
+    }
+
+    // Inclusive start, exclusive end; either bound may be null
+    public ReceiptQuery between(LocalDateTime from, LocalDateTime to) {
+        this.from = from;
+        this.to = to;
+        return this;
+    }
+
+    // Getters
+    public String getCashierId() { return cashierId; }
+    public String getRegisterId() { return registerId; }
+    public String getProductId() { return productId; }
+    public LocalDateTime getFrom() { return from; }
+    public LocalDateTime getTo() { return to; }
+}
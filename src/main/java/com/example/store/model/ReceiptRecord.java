@@ -0,0 +1,226 @@
+package com.example.store.model;
+
+import com.example.store.util.Money;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Flat, immutable copy of a committed receipt that refers to cashiers,
+ * registers and products by ID only. Encodes to a single text line so it
+ * can be appended to logs and read back by other processes.
+ */
+public class ReceiptRecord implements Serializable {
+    private static final char FIELD_SEPARATOR = '\t';
+    private static final char ITEM_SEPARATOR = ';';
+    private static final char ITEM_FIELD_SEPARATOR = '|';
+
+    private final int receiptNumber;
+    private final LocalDateTime timestamp;
+    private final String cashierId;
+    private final String cashierName;
+    private final String registerId;
+    private final long totalAmountMinor;
+    private final List<Item> items;
+    private final List<Receipt.Discount> discounts;
+
+    public ReceiptRecord(int receiptNumber, LocalDateTime timestamp, String cashierId, String cashierName,
+                         String registerId, double totalAmount, List<Item> items) {
+        this(receiptNumber, timestamp, cashierId, cashierName, registerId, Money.toMinor(totalAmount), items,
+             List.of(), true);
+    }
+
+    private ReceiptRecord(int receiptNumber, LocalDateTime timestamp, String cashierId, String cashierName,
+                          String registerId, long totalAmountMinor, List<Item> items,
+                          List<Receipt.Discount> discounts, boolean copyItems) {
+        this.receiptNumber = receiptNumber;
+        this.timestamp = timestamp;
+        this.cashierId = cashierId;
+        this.cashierName = cashierName;
+        this.registerId = registerId;
+        this.totalAmountMinor = totalAmountMinor;
+        this.items = Collections.unmodifiableList(copyItems ? new ArrayList<>(items) : items);
+        this.discounts = List.copyOf(discounts);
+    }
+
+    // As the public constructor, with the total in stotinki
+    public static ReceiptRecord ofMinorUnits(int receiptNumber, LocalDateTime timestamp, String cashierId,
+                                             String cashierName, String registerId, long totalAmountMinor,
+                                             List<Item> items) {
+        return ofMinorUnits(receiptNumber, timestamp, cashierId, cashierName, registerId, totalAmountMinor, items,
+                            List.of());
+    }
+
+    public static ReceiptRecord ofMinorUnits(int receiptNumber, LocalDateTime timestamp, String cashierId,
+                                             String cashierName, String registerId, long totalAmountMinor,
+                                             List<Item> items, List<Receipt.Discount> discounts) {
+        return new ReceiptRecord(receiptNumber, timestamp, cashierId, cashierName, registerId,
+                                 totalAmountMinor, items, discounts, true);
+    }
+
+    public static ReceiptRecord from(Receipt receipt) {
+        List<Item> items = new ArrayList<>(receipt.getItems().size());
+        for (Receipt.ReceiptItem item : receipt.getItems()) {
+            items.add(Item.ofMinorUnits(item.getProduct().getId(), item.getProduct().getName(),
+                                        item.getQuantity(), item.getUnitPriceMinor(), item.getTotalMinor()));
+        }
+        return new ReceiptRecord(receipt.getReceiptNumber(), receipt.getTimestamp(),
+                                 receipt.getCashier().getId(), receipt.getCashier().getName(),
+                                 receipt.getRegisterId(), receipt.getTotalAmountMinor(), items,
+                                 receipt.getDiscounts(), false);
+    }
+
+    public String encode() {
+        StringBuilder sb = new StringBuilder(64 + items.size() * 32);
+        sb.append(receiptNumber).append(FIELD_SEPARATOR)
+          .append(timestamp).append(FIELD_SEPARATOR);
+        escape(sb, cashierId);
+        sb.append(FIELD_SEPARATOR);
+        escape(sb, cashierName);
+        sb.append(FIELD_SEPARATOR);
+        escape(sb, registerId);
+        sb.append(FIELD_SEPARATOR);
+        Money.append(sb, totalAmountMinor).append(FIELD_SEPARATOR);
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            if (i > 0) {
+                sb.append(ITEM_SEPARATOR);
+            }
+            escape(sb, item.productId);
+            sb.append(ITEM_FIELD_SEPARATOR);
+            escape(sb, item.productName);
+            sb.append(ITEM_FIELD_SEPARATOR).append(item.quantity).append(ITEM_FIELD_SEPARATOR);
+            Money.append(sb, item.unitPriceMinor).append(ITEM_FIELD_SEPARATOR);
+            Money.append(sb, item.totalMinor);
+        }
+        sb.append(FIELD_SEPARATOR);
+        for (int i = 0; i < discounts.size(); i++) {
+            Receipt.Discount discount = discounts.get(i);
+            if (i > 0) {
+                sb.append(ITEM_SEPARATOR);
+            }
+            escape(sb, discount.getPromotionId());
+            sb.append(ITEM_FIELD_SEPARATOR);
+            escape(sb, discount.getDescription());
+            sb.append(ITEM_FIELD_SEPARATOR);
+            Money.append(sb, discount.getAmountMinor());
+        }
+        return sb.toString();
+    }
+
+    public static ReceiptRecord decode(String line) {
+        String[] fields = line.split(String.valueOf(FIELD_SEPARATOR), -1);
+        if (fields.length != 8) {
+            throw new IllegalArgumentException("Malformed receipt record: " + line);
+        }
+        List<Item> items = new ArrayList<>();
+        if (!fields[6].isEmpty()) {
+            for (String encodedItem : fields[6].split(String.valueOf(ITEM_SEPARATOR))) {
+                String[] parts = encodedItem.split("\\" + ITEM_FIELD_SEPARATOR, -1);
+                if (parts.length != 5) {
+                    throw new IllegalArgumentException("Malformed receipt item: " + encodedItem);
+                }
+                items.add(Item.ofMinorUnits(unescape(parts[0]), unescape(parts[1]), Integer.parseInt(parts[2]),
+                                            Money.parse(parts[3]), Money.parse(parts[4])));
+            }
+        }
+        List<Receipt.Discount> discounts = new ArrayList<>();
+        if (!fields[7].isEmpty()) {
+            for (String encodedDiscount : fields[7].split(String.valueOf(ITEM_SEPARATOR))) {
+                String[] parts = encodedDiscount.split("\\" + ITEM_FIELD_SEPARATOR, -1);
+                if (parts.length != 3) {
+                    throw new IllegalArgumentException("Malformed receipt discount: " + encodedDiscount);
+                }
+                discounts.add(new Receipt.Discount(unescape(parts[0]), unescape(parts[1]), Money.parse(parts[2])));
+            }
+        }
+        return new ReceiptRecord(Integer.parseInt(fields[0]), LocalDateTime.parse(fields[1]),
+                                 unescape(fields[2]), unescape(fields[3]), unescape(fields[4]),
+                                 Money.parse(fields[5]), items, discounts, false);
+    }
+
+    // Separators and line breaks are written as %XX; null is written as a lone %
+    private static void escape(StringBuilder sb, String value) {
+        if (value == null) {
+            sb.append('%');
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == FIELD_SEPARATOR || c == ITEM_SEPARATOR || c == ITEM_FIELD_SEPARATOR
+                    || c == '\n' || c == '\r') {
+                sb.append('%').append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+            } else {
+                sb.append(c);
+            }
+        }
+    }
+
+    private static String unescape(String value) {
+        if (value.equals("%")) {
+            return null;
+        }
+        if (value.indexOf('%') < 0) {
+            return value;
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%') {
+                sb.append((char) Integer.parseInt(value.substring(i + 1, i + 3), 16));
+                i += 2;
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    // Getters
+    public int getReceiptNumber() { return receiptNumber; }
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public String getCashierId() { return cashierId; }
+    public String getCashierName() { return cashierName; }
+    public String getRegisterId() { return registerId; }
+    public double getTotalAmount() { return Money.toMajor(totalAmountMinor); }
+    public long getTotalAmountMinor() { return totalAmountMinor; }
+    public List<Item> getItems() { return items; }
+    public List<Receipt.Discount> getDiscounts() { return discounts; }
+
+    public static class Item implements Serializable {
+        private final String productId;
+        private final String productName;
+        private final int quantity;
+        private final long unitPriceMinor;
+        private final long totalMinor;
+
+        public Item(String productId, String productName, int quantity, double unitPrice, double total) {
+            this(productId, productName, quantity, Money.toMinor(unitPrice), Money.toMinor(total));
+        }
+
+        private Item(String productId, String productName, int quantity, long unitPriceMinor, long totalMinor) {
+            this.productId = productId;
+            this.productName = productName;
+            this.quantity = quantity;
+            this.unitPriceMinor = unitPriceMinor;
+            this.totalMinor = totalMinor;
+        }
+
+        public static Item ofMinorUnits(String productId, String productName, int quantity,
+                                        long unitPriceMinor, long totalMinor) {
+            return new Item(productId, productName, quantity, unitPriceMinor, totalMinor);
+        }
+
+        // Getters
+        public String getProductId() { return productId; }
+        public String getProductName() { return productName; }
+        public int getQuantity() { return quantity; }
+        public double getUnitPrice() { return Money.toMajor(unitPriceMinor); }
+        public double getTotal() { return Money.toMajor(totalMinor); }
+        public long getUnitPriceMinor() { return unitPriceMinor; }
+        public long getTotalMinor() { return totalMinor; }
+    }
+}
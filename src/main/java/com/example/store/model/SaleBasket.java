@@ -0,0 +1,64 @@
+package com.example.store.model;
+
+import java.util.Arrays;
+
+/**
+ * Reusable basket of (product index, quantity) pairs held in primitive arrays.
+ * Product indexes are positions in Store.getProducts(). Clear and refill one
+ * basket per register instead of building a map for every sale.
+ */
+public class SaleBasket {
+    private int[] productIndexes;
+    private int[] quantities;
+    private int size;
+
+    public SaleBasket() {
+        this(16);
+    }
+
+    public SaleBasket(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative");
+        }
+        this.productIndexes = new int[capacity];
+        this.quantities = new int[capacity];
+    }
+
+    // Adding a product that is already in the basket increases its quantity
+    public SaleBasket add(int productIndex, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        for (int i = 0; i < size; i++) {
+            if (productIndexes[i] == productIndex) {
+                quantities[i] += quantity;
+                return this;
+            }
+        }
+        if (size == productIndexes.length) {
+            int capacity = Math.max(4, size * 2);
+            productIndexes = Arrays.copyOf(productIndexes, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+        }
+        productIndexes[size] = productIndex;
+        quantities[size] = quantity;
+        size++;
+        return this;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getProductIndex(int line) {
+        return productIndexes[line];
+    }
+
+    public int getQuantity(int line) {
+        return quantities[line];
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.store.model;
+
+import java.io.Serializable;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers the receipt issued for each client-supplied sale ID so a resubmitted
+ * sale returns the original receipt. Entries are kept in insertion order, which
+ * is also expiry order, so eviction only ever looks at the head of the map.
+ */
+public class SaleDeduplicationCache implements Serializable {
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final LinkedHashMap<String, Entry> entries;
+
+    public SaleDeduplicationCache(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, Clock.systemUTC());
+    }
+
+    public SaleDeduplicationCache(int maxEntries, Duration ttl, Clock clock) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Max entries must be positive");
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("TTL must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>();
+    }
+
+    public synchronized Receipt get(String saleId) {
+        evictExpired(clock.millis());
+        Entry entry = entries.get(saleId);
+        return entry != null ? entry.receipt : null;
+    }
+
+    public synchronized void put(String saleId, Receipt receipt) {
+        long now = clock.millis();
+        evictExpired(now);
+        entries.remove(saleId);
+        entries.put(saleId, new Entry(receipt, now + ttlMillis));
+        while (entries.size() > maxEntries) {
+            Iterator<Map.Entry<String, Entry>> oldest = entries.entrySet().iterator();
+            oldest.next();
+            oldest.remove();
+        }
+    }
+
+    public synchronized int size() {
+        evictExpired(clock.millis());
+        return entries.size();
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getValue().expiresAtMillis > now) {
+                break;
+            }
+            iterator.remove();
+        }
+    }
+
+    private static final class Entry implements Serializable {
+        private final Receipt receipt;
+        private final long expiresAtMillis;
+
+        Entry(Receipt receipt, long expiresAtMillis) {
+            this.receipt = receipt;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
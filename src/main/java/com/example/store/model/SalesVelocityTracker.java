@@ -0,0 +1,64 @@
+package com.example.store.model;
+
+import java.io.Serializable;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Exponentially decayed sales rate per product, in units per day. Each sale
+ * decays the stored rate to the current time and adds its units, so both
+ * recording and reading are O(1) and no receipt history is kept. Older sales
+ * count half as much after every half-life.
+ */
+public class SalesVelocityTracker implements Serializable {
+    private static final double MILLIS_PER_DAY = Duration.ofDays(1).toMillis();
+
+    private final double halfLifeMillis;
+    private final Clock clock;
+    private final Map<String, Velocity> velocities;
+
+    public SalesVelocityTracker(Duration halfLife) {
+        this(halfLife, Clock.systemUTC());
+    }
+
+    public SalesVelocityTracker(Duration halfLife, Clock clock) {
+        if (halfLife.isNegative() || halfLife.isZero()) {
+            throw new IllegalArgumentException("Half-life must be positive");
+        }
+        this.halfLifeMillis = halfLife.toMillis();
+        this.clock = clock;
+        this.velocities = new ConcurrentHashMap<>();
+    }
+
+    public void recordSale(Product product, int quantity) {
+        velocities.computeIfAbsent(product.getId(), id -> new Velocity())
+                  .add(quantity, clock.millis(), halfLifeMillis);
+    }
+
+    public double getDailyRate(Product product) {
+        Velocity velocity = velocities.get(product.getId());
+        return velocity != null ? velocity.rateAt(clock.millis(), halfLifeMillis) : 0.0;
+    }
+
+    private static final class Velocity implements Serializable {
+        private double unitsPerDay;
+        private long updatedAt;
+
+        synchronized void add(int quantity, long now, double halfLifeMillis) {
+            // Weighting each unit by ln2 / half-life makes a steady sales rate converge to itself
+            unitsPerDay = decayed(now, halfLifeMillis) + quantity * Math.log(2) * MILLIS_PER_DAY / halfLifeMillis;
+            updatedAt = now;
+        }
+
+        synchronized double rateAt(long now, double halfLifeMillis) {
+            return decayed(now, halfLifeMillis);
+        }
+
+        private double decayed(long now, double halfLifeMillis) {
+            long elapsed = Math.max(0, now - updatedAt);
+            return unitsPerDay * Math.pow(0.5, elapsed / halfLifeMillis);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.store.model;
+
+import java.time.LocalDateTime;
+
+public class StockAlert {
+    private final Type type;
+    private final Product product;
+    private final int quantity;
+    private final LocalDateTime timestamp;
+
+    public StockAlert(Type type, Product product, int quantity) {
+        this.type = type;
+        this.product = product;
+        this.quantity = quantity;
+        this.timestamp = LocalDateTime.now();
+    }
+
+    // Getters
+    public Type getType() { return type; }
+    public Product getProduct() { return product; }
+    public int getQuantity() { return quantity; }
+    public LocalDateTime getTimestamp() { return timestamp; }
+
+    public enum Type {
+        LOW_STOCK,
+        OUT_OF_STOCK,
+        NEAR_EXPIRY
+    }
+
+    @Override
+    public String toString() {
+        return String.format("StockAlert{type=%s, product='%s', quantity=%d}",
+                           type, product.getId(), quantity);
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.store.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publishes low-stock and expiry alerts to Flow subscribers. Stock changes are
+ * checked against a per-product threshold in O(1); expiry alerts come from an
+ * index keyed by the day a product enters the discount window. Alerts are
+ * offered without blocking: each subscriber has a bounded buffer and alerts it
+ * cannot take are dropped and counted, so a slow subscriber never stalls a sale.
+ */
+public class StockAlertPublisher implements Flow.Publisher<StockAlert>, StockListener, AutoCloseable {
+    private static final int DEFAULT_BUFFER_CAPACITY = 1024;
+
+    private final SubmissionPublisher<StockAlert> publisher;
+    private final Map<Product, Integer> thresholds;
+    private final TreeMap<LocalDate, List<Product>> expiryWindowIndex;
+    private final int daysUntilDiscount;
+    private final LongAdder droppedAlerts;
+    private volatile int defaultThreshold;
+
+    public StockAlertPublisher(int defaultThreshold, int daysUntilDiscount) {
+        this(defaultThreshold, daysUntilDiscount, ForkJoinPool.commonPool(), DEFAULT_BUFFER_CAPACITY);
+    }
+
+    public StockAlertPublisher(int defaultThreshold, int daysUntilDiscount,
+                               Executor executor, int bufferCapacity) {
+        this.publisher = new SubmissionPublisher<>(executor, bufferCapacity);
+        this.thresholds = new ConcurrentHashMap<>();
+        this.expiryWindowIndex = new TreeMap<>();
+        this.daysUntilDiscount = daysUntilDiscount;
+        this.droppedAlerts = new LongAdder();
+        this.defaultThreshold = defaultThreshold;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super StockAlert> subscriber) {
+        publisher.subscribe(subscriber);
+    }
+
+    public void setDefaultThreshold(int threshold) {
+        this.defaultThreshold = threshold;
+    }
+
+    public void setThreshold(Product product, int threshold) {
+        thresholds.put(product, threshold);
+    }
+
+    public int getThreshold(Product product) {
+        return thresholds.getOrDefault(product, defaultThreshold);
+    }
+
+    @Override
+    public void onStockChanged(Product product, int oldQuantity, int newQuantity) {
+        if (newQuantity >= oldQuantity) {
+            return;
+        }
+        if (newQuantity == 0) {
+            publish(new StockAlert(StockAlert.Type.OUT_OF_STOCK, product, 0));
+            return;
+        }
+        int threshold = getThreshold(product);
+        if (oldQuantity > threshold && newQuantity <= threshold) {
+            publish(new StockAlert(StockAlert.Type.LOW_STOCK, product, newQuantity));
+        }
+    }
+
+    public void trackExpiry(Product product, LocalDate today) {
+        trackExpiry(product, product.getExpirationDate(), today);
+    }
+
+    // Tracks one lot's expiry; the alert reports the product's stock when its window opens
+    public synchronized void trackExpiry(Product product, LocalDate expirationDate, LocalDate today) {
+        if (expirationDate == null) {
+            return;
+        }
+        LocalDate windowStart = expirationDate.minusDays(daysUntilDiscount);
+        if (!windowStart.isAfter(today)) {
+            publishNearExpiry(product, today);
+        } else {
+            expiryWindowIndex.computeIfAbsent(windowStart, d -> new ArrayList<>()).add(product);
+        }
+    }
+
+    // Emits alerts for every product whose discount window starts on or before today
+    public synchronized void onDayTick(LocalDate today) {
+        NavigableMap<LocalDate, List<Product>> due = expiryWindowIndex.headMap(today, true);
+        for (List<Product> products : due.values()) {
+            for (Product product : products) {
+                publishNearExpiry(product, today);
+            }
+        }
+        due.clear();
+    }
+
+    private void publishNearExpiry(Product product, LocalDate today) {
+        if (product.getQuantity() > 0 && !today.isAfter(product.getExpirationDate())) {
+            publish(new StockAlert(StockAlert.Type.NEAR_EXPIRY, product, product.getQuantity()));
+        }
+    }
+
+    private void publish(StockAlert alert) {
+        if (!publisher.hasSubscribers()) {
+            return;
+        }
+        publisher.offer(alert, (subscriber, dropped) -> {
+            droppedAlerts.increment();
+            return false;
+        });
+    }
+
+    public long getDroppedAlertsCount() {
+        return droppedAlerts.sum();
+    }
+
+    @Override
+    public void close() {
+        publisher.close();
+    }
+}
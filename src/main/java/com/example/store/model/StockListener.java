@@ -0,0 +1,5 @@
+package com.example.store.model;
+
+public interface StockListener {
+    void onStockChanged(Product product, int oldQuantity, int newQuantity);
+}
@@ -1,23 +1,69 @@
 package com.example.store.model;
 
+import com.example.store.util.AppendOnlyList;
+import com.example.store.util.ConcurrentBitSet;
+import com.example.store.util.Money;
+import com.example.store.util.Today;
+
 import java.io.*;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 public class Store implements Serializable {
+    private static final int DEFAULT_DEDUPLICATION_ENTRIES = 100_000;
+    private static final Duration DEFAULT_DEDUPLICATION_TTL = Duration.ofMinutes(15);
+    private static final int DEFAULT_LOW_STOCK_THRESHOLD = 10;
+    private static final Duration DEFAULT_VELOCITY_HALF_LIFE = Duration.ofDays(3);
+
+    public enum MarkdownMode {
+        // The full discount percentage once a product is near expiration
+        FIXED,
+        // Up to the discount percentage, scaled by the share of stock projected to be left at expiry
+        VELOCITY
+    }
+
     private final String name;
     private final double foodMarkupPercentage;
     private final double nonFoodMarkupPercentage;
     private final int daysUntilDiscount;
     private final double discountPercentage;
     
-    private final List<Product> products;
-    private final List<Cashier> cashiers;
-    private final List<CashRegister> registers;
-    private final List<Receipt> allReceipts;
+    private final AppendOnlyList<Product> products;
+    private final AppendOnlyList<Cashier> cashiers;
+    private final AppendOnlyList<CashRegister> registers;
+    private final AppendOnlyList<Receipt> allReceipts;
+    private final Map<String, Integer> productPositions;
+    private final ProductSearchIndex searchIndex;
+    private final ReceiptIndex receiptIndex;
+    private final PromotionEngine promotions;
+    // Bit i is set while products.get(i) is in stock and not expired as of sellableDay
+    private final ConcurrentBitSet sellable;
+    // Products by the expiry dates of their lots, so a new day re-checks only what expired; guarded by this
+    private final TreeMap<LocalDate, List<Product>> expiryIndex;
+    private volatile LocalDate sellableDay;
+    private SaleDeduplicationCache saleDeduplication;
+    private volatile SalesVelocityTracker salesVelocity;
+    private volatile MarkdownMode markdownMode;
+    private final transient StockAlertPublisher stockAlerts;
+    private final transient List<ReceiptListener> receiptListeners;
+    private transient volatile StoreJournal journal;
+    private transient volatile Path receiptDirectory;
+    private transient volatile Executor persistenceExecutor;
     
-    private double totalRevenue;
-    private double totalDeliveryCosts;
-    private double totalSalaryCosts;
+    // In stotinki, guarded by this; readers go through the published snapshot instead
+    private long totalRevenueMinor;
+    private long totalDeliveryCostsMinor;
+    private long totalSalaryCostsMinor;
+    private volatile StoreSnapshot snapshot;
 
     public Store(String name, double foodMarkupPercentage, double nonFoodMarkupPercentage,
                 int daysUntilDiscount, double discountPercentage) {
@@ -27,66 +73,503 @@ public class Store implements Serializable {
         this.daysUntilDiscount = daysUntilDiscount;
         this.discountPercentage = discountPercentage;
         
-        this.products = new ArrayList<>();
-        this.cashiers = new ArrayList<>();
-        this.registers = new ArrayList<>();
-        this.allReceipts = new ArrayList<>();
+        this.products = new AppendOnlyList<>();
+        this.cashiers = new AppendOnlyList<>();
+        this.registers = new AppendOnlyList<>();
+        this.allReceipts = new AppendOnlyList<>();
+        this.productPositions = new ConcurrentHashMap<>();
+        this.searchIndex = new ProductSearchIndex();
+        this.receiptIndex = new ReceiptIndex();
+        this.promotions = new PromotionEngine();
+        this.sellable = new ConcurrentBitSet();
+        this.expiryIndex = new TreeMap<>();
+        this.sellableDay = Today.get();
+        this.saleDeduplication = new SaleDeduplicationCache(DEFAULT_DEDUPLICATION_ENTRIES,
+                                                            DEFAULT_DEDUPLICATION_TTL);
+        this.salesVelocity = new SalesVelocityTracker(DEFAULT_VELOCITY_HALF_LIFE);
+        this.markdownMode = MarkdownMode.FIXED;
+        this.stockAlerts = new StockAlertPublisher(DEFAULT_LOW_STOCK_THRESHOLD, daysUntilDiscount);
+        this.receiptListeners = new CopyOnWriteArrayList<>();
+        this.receiptDirectory = Path.of("");
         
-        this.totalRevenue = 0.0;
-        this.totalDeliveryCosts = 0.0;
-        this.totalSalaryCosts = 0.0;
+        this.totalRevenueMinor = 0;
+        this.totalDeliveryCostsMinor = 0;
+        this.totalSalaryCostsMinor = 0;
+        this.snapshot = StoreSnapshot.empty();
+    }
+
+    public synchronized void addProduct(Product product) {
+        checkJournal();
+        productPositions.put(product.getId(), products.add(product));
+        searchIndex.add(product);
+        product.setStockListener(this::onStockChanged);
+        for (ProductLot lot : product.getLots()) {
+            stockAlerts.trackExpiry(product, lot.getExpirationDate(), Today.get());
+            indexExpiry(product, lot.getExpirationDate());
+            totalDeliveryCostsMinor += lot.getDeliveryPriceMinor() * lot.getQuantity();
+        }
+        updateSellable(product);
+        publishSnapshot();
+        if (journal != null) {
+            journalProduct(product);
+            journal.sync();
+        }
+    }
+
+    // A new delivery with its own price and expiry; it is sold after lots that expire earlier
+    public synchronized void receiveLot(Product product, ProductLot lot) {
+        checkJournal();
+        indexExpiry(product, lot.getExpirationDate());
+        product.addLot(lot);
+        stockAlerts.trackExpiry(product, lot.getExpirationDate(), Today.get());
+        totalDeliveryCostsMinor += lot.getDeliveryPriceMinor() * lot.getQuantity();
+        publishSnapshot();
+        if (journal != null) {
+            journal.lotReceived(product, lot);
+            journal.sync();
+        }
+    }
+
+    // Writes off the stock of every lot that expired before today; returns the units removed
+    public synchronized int discardExpiredLots(LocalDate today) {
+        checkJournal();
+        int discarded = 0;
+        for (Product product : products.view()) {
+            discarded += product.discardExpiredLots(today);
+        }
+        if (discarded > 0 && journal != null) {
+            journal.expiredLotsDiscarded(today);
+            journal.sync();
+        }
+        return discarded;
+    }
+
+    public synchronized void restockProduct(Product product, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Restock quantity must be positive");
+        }
+        checkJournal();
+        product.increaseQuantity(quantity);
+        totalDeliveryCostsMinor += product.getDeliveryPriceMinor() * quantity;
+        publishSnapshot();
+        if (journal != null) {
+            journal.productRestocked(product, quantity);
+            journal.sync();
+        }
+    }
+
+    // Stock only changes under the store lock, so the sellable bit is updated there too
+    private void onStockChanged(Product product, int oldQuantity, int newQuantity) {
+        updateSellable(product);
+        stockAlerts.onStockChanged(product, oldQuantity, newQuantity);
     }
 
-    public void addProduct(Product product) {
-        products.add(product);
-        totalDeliveryCosts += product.getDeliveryPrice() * product.getQuantity();
+    // Should be called once a day (e.g. at opening) to discard expired lots and raise expiry alerts
+    public void onDayTick(LocalDate today) {
+        advanceSellableDay(today);
+        discardExpiredLots(today);
+        stockAlerts.onDayTick(today);
+    }
+
+    private void indexExpiry(Product product, LocalDate expirationDate) {
+        if (expirationDate != null) {
+            expiryIndex.computeIfAbsent(expirationDate, date -> new ArrayList<>(1)).add(product);
+        }
     }
 
-    public void addCashier(Cashier cashier) {
+    private void updateSellable(Product product) {
+        int position = productPositions.get(product.getId());
+        if (product.getSellableQuantity(sellableDay) > 0) {
+            sellable.set(position);
+        } else {
+            sellable.clear(position);
+        }
+    }
+
+    // Re-checks only the products with a lot that expired before the new day
+    private synchronized void advanceSellableDay(LocalDate today) {
+        if (!today.isAfter(sellableDay)) {
+            return;
+        }
+        sellableDay = today;
+        SortedMap<LocalDate, List<Product>> expired = expiryIndex.headMap(today);
+        for (List<Product> expiredProducts : expired.values()) {
+            for (Product product : expiredProducts) {
+                updateSellable(product);
+            }
+        }
+        expired.clear();
+    }
+
+    public void addReceiptListener(ReceiptListener listener) {
+        receiptListeners.add(listener);
+    }
+
+    public void removeReceiptListener(ReceiptListener listener) {
+        receiptListeners.remove(listener);
+    }
+
+    public StockAlertPublisher getStockAlerts() {
+        return stockAlerts;
+    }
+
+    public void setLowStockThreshold(Product product, int threshold) {
+        stockAlerts.setThreshold(product, threshold);
+    }
+
+    public void setDefaultLowStockThreshold(int threshold) {
+        stockAlerts.setDefaultThreshold(threshold);
+    }
+
+    public synchronized void addCashier(Cashier cashier) {
+        checkJournal();
         cashiers.add(cashier);
-        totalSalaryCosts += cashier.getMonthlySalary();
+        totalSalaryCostsMinor += Money.toMinor(cashier.getMonthlySalary());
+        publishSnapshot();
+        if (journal != null) {
+            journal.cashierAdded(cashier);
+            journal.sync();
+        }
     }
 
-    public void addCashRegister(CashRegister register) {
+    public synchronized void addCashRegister(CashRegister register) {
+        checkJournal();
         registers.add(register);
+        if (journal != null) {
+            journal.registerAdded(register);
+            journal.sync();
+        }
+    }
+
+    // Existing cashiers, registers and products are journaled first so the journal starts from current state
+    public synchronized void setJournal(StoreJournal journal) {
+        this.journal = journal;
+        if (journal != null) {
+            cashiers.view().forEach(journal::cashierAdded);
+            registers.view().forEach(journal::registerAdded);
+            products.view().forEach(this::journalProduct);
+            journal.sync();
+        }
+    }
+
+    private void checkJournal() {
+        if (journal != null) {
+            journal.checkWritable();
+        }
+    }
+
+    // Sales wait here outside the store lock, so concurrent sales share one journal flush
+    private void syncJournal() {
+        StoreJournal current = journal;
+        if (current != null) {
+            current.sync();
+        }
+    }
+
+    // Every lot is journaled exactly once, from one snapshot: the first with the product, the rest as deliveries
+    private void journalProduct(Product product) {
+        List<ProductLot> lots = product.getLots();
+        journal.productAdded(product, lots.get(0));
+        for (int i = 1; i < lots.size(); i++) {
+            journal.lotReceived(product, lots.get(i));
+        }
+    }
+
+    public void setReceiptDirectory(Path receiptDirectory) {
+        this.receiptDirectory = receiptDirectory;
+    }
+
+    // Receipt files are written on this executor instead of the selling thread; null writes them inline
+    public void setPersistenceExecutor(Executor persistenceExecutor) {
+        this.persistenceExecutor = persistenceExecutor;
+    }
+
+    public Executor getPersistenceExecutor() {
+        return persistenceExecutor;
+    }
+
+    public Cashier findCashierById(String id) {
+        for (Cashier cashier : cashiers.view()) {
+            if (cashier.getId().equals(id)) {
+                return cashier;
+            }
+        }
+        return null;
+    }
+
+    public CashRegister findRegisterById(String id) {
+        for (CashRegister register : registers.view()) {
+            if (register.getId().equals(id)) {
+                return register;
+            }
+        }
+        return null;
     }
 
     public double calculateProductPrice(Product product) {
+        return calculateLotPrice(product, product.getNextLot());
+    }
+
+    // The price of units sold from the given lot; markdowns follow that lot's expiry and stock
+    public double calculateLotPrice(Product product, ProductLot lot) {
         double markupPercentage = product.getCategory() == Product.ProductCategory.FOOD 
             ? foodMarkupPercentage 
             : nonFoodMarkupPercentage;
+        double discount = markdownMode == MarkdownMode.VELOCITY && lot.isNearExpiration(daysUntilDiscount)
+            ? velocityMarkdown(product, lot)
+            : discountPercentage;
             
-        return product.calculateSellingPrice(markupPercentage, daysUntilDiscount, discountPercentage);
+        return product.calculateSellingPrice(lot, markupPercentage, daysUntilDiscount, discount);
+    }
+
+    // The selling price rounded to stotinki, as charged on a receipt
+    public long calculateProductPriceMinor(Product product) {
+        return Money.toMinor(calculateProductPrice(product));
+    }
+
+    // Prices the lot sold next, remembering which lot the price was for
+    public LotPrice quoteLotPrice(Product product) {
+        ProductLot lot = product.getNextLot();
+        return new LotPrice(lot, lotPriceMinor(product, lot));
+    }
+
+    // Lots sell in expiry order, so only the stock in this lot has to sell before its expiry
+    private double velocityMarkdown(Product product, ProductLot lot) {
+        int quantity = lot.getQuantity();
+        if (quantity == 0) {
+            return 0.0;
+        }
+        long daysLeft = ChronoUnit.DAYS.between(Today.get(), lot.getExpirationDate()) + 1;
+        double projectedLeftover = Math.max(0.0, quantity - salesVelocity.getDailyRate(product) * daysLeft);
+        return discountPercentage * projectedLeftover / quantity;
+    }
+
+    public void setMarkdownMode(MarkdownMode markdownMode) {
+        this.markdownMode = markdownMode;
+    }
+
+    public synchronized void setSalesVelocityTracker(SalesVelocityTracker salesVelocity) {
+        this.salesVelocity = salesVelocity;
+    }
+
+    public double getDailySalesRate(Product product) {
+        return salesVelocity.getDailyRate(product);
+    }
+
+    public void addPromotion(Promotion promotion) {
+        promotions.addPromotion(promotion);
+    }
+
+    public void removePromotion(Promotion promotion) {
+        promotions.removePromotion(promotion);
+    }
+
+    public synchronized void setSaleDeduplicationCache(SaleDeduplicationCache saleDeduplication) {
+        this.saleDeduplication = saleDeduplication;
+    }
+
+    public Receipt processSale(CashRegister register, Map<Product, Integer> items) {
+        return processSale(register, items, null);
     }
 
-    public void processSale(CashRegister register, Map<Product, Integer> items) {
+    // A retried sale with the same saleId returns the original receipt without selling again
+    public Receipt processSale(CashRegister register, Map<Product, Integer> items, String saleId) {
+        return processSale(register, items, saleId, receipt -> sellFromLots(receipt, items, this::lotPriceMinor),
+                           receipt -> promotions.evaluate(receipt.getItems()));
+    }
+
+    // Applies a sale recorded elsewhere (e.g. on a primary store) with its original unit prices
+    public Receipt replaySale(CashRegister register, Map<Product, Integer> items,
+                              Map<Product, Double> unitPrices, String saleId) {
+        return replaySale(register, items, unitPrices, List.of(), saleId);
+    }
+
+    // As above, with the discounts the original store granted instead of this store's promotions
+    public Receipt replaySale(CashRegister register, Map<Product, Integer> items,
+                              Map<Product, Double> unitPrices, List<Receipt.Discount> discounts, String saleId) {
+        List<Receipt.ReceiptItem> lines = new ArrayList<>(items.size());
+        for (Map.Entry<Product, Integer> entry : items.entrySet()) {
+            double unitPrice = unitPrices.get(entry.getKey());
+            lines.add(new Receipt.ReceiptItem(entry.getKey(), entry.getValue(), unitPrice,
+                                              unitPrice * entry.getValue()));
+        }
+        return replaySale(register, lines, discounts, saleId);
+    }
+
+    // Replays the original receipt line by line, so a product sold from several lots keeps each line's price
+    public Receipt replaySale(CashRegister register, List<Receipt.ReceiptItem> lines,
+                              List<Receipt.Discount> discounts, String saleId) {
+        Map<Product, Integer> demand = new LinkedHashMap<>();
+        for (Receipt.ReceiptItem line : lines) {
+            demand.merge(line.getProduct(), line.getQuantity(), Integer::sum);
+        }
+        return processSale(register, demand, saleId, receipt -> {
+            for (Receipt.ReceiptItem line : lines) {
+                receipt.addItemMinor(line.getProduct(), line.getQuantity(), line.getUnitPriceMinor());
+            }
+        }, receipt -> discounts);
+    }
+
+    private Receipt processSale(CashRegister register, Map<Product, Integer> items, String saleId,
+                                Consumer<Receipt> filling,
+                                Function<Receipt, List<Receipt.Discount>> discounting) {
+        boolean[] committedNow = new boolean[1];
+        Receipt receipt = commit(register, items, saleId, fresh -> {
+            committedNow[0] = true;
+            filling.accept(fresh);
+        }, discounting);
+        syncJournal();
+        // A deduplicated retry gets the original receipt, whose file the original sale already wrote
+        if (!committedNow[0]) {
+            return receipt;
+        }
+
+        // Save receipt to file, off the sale thread when a persistence executor is set
+        Executor persistence = persistenceExecutor;
+        if (persistence != null) {
+            persistence.execute(() -> saveReceiptToFile(receipt));
+        } else {
+            saveReceiptToFile(receipt);
+        }
+        return receipt;
+    }
+
+    // Commits a sale priced by the caller (e.g. the sale pipeline) without writing the receipt file.
+    // A quoted price applies only to the lot it was quoted for; units drawn from any other lot (because
+    // the quoted lot sold out meanwhile, or the sale spills past it) are priced here under the lock.
+    public Receipt commitPricedSale(CashRegister register, Map<Product, Integer> items,
+                                    Map<Product, LotPrice> quotes, String saleId) {
+        Receipt.LotPricer pricer = (product, lot) -> {
+            LotPrice quote = quotes.get(product);
+            return quote != null && quote.getLot() == lot ? quote.getUnitPriceMinor() : lotPriceMinor(product, lot);
+        };
+        Receipt committed = commit(register, items, saleId, receipt -> sellFromLots(receipt, items, pricer),
+                                   receipt -> promotions.evaluate(receipt.getItems()));
+        syncJournal();
+        return committed;
+    }
+
+    private synchronized Receipt commit(CashRegister register, Map<Product, Integer> items, String saleId,
+                                        Consumer<Receipt> filling,
+                                        Function<Receipt, List<Receipt.Discount>> discounting) {
+        // A failed journal refuses sales up front, including retries of sales it never made durable
+        checkJournal();
+        if (saleId != null) {
+            Receipt previous = saleDeduplication.get(saleId);
+            if (previous != null) {
+                return previous;
+            }
+        }
+        Receipt receipt = commitSale(register, items, filling, discounting);
+        if (saleId != null) {
+            saleDeduplication.put(saleId, receipt);
+        }
+        if (journal != null) {
+            journal.saleCommitted(register, receipt, saleId);
+        }
+        return receipt;
+    }
+
+    private synchronized Receipt commitSale(CashRegister register, Map<Product, Integer> items,
+                                            Consumer<Receipt> filling,
+                                            Function<Receipt, List<Receipt.Discount>> discounting) {
         if (register.getAssignedCashier() == null) {
             throw new IllegalStateException("No cashier assigned to register");
         }
 
+        // Check every line before taking any stock, so a rejected sale leaves no partial receipt behind
+        for (Map.Entry<Product, Integer> entry : items.entrySet()) {
+            checkSellable(entry.getKey(), entry.getValue());
+        }
         Receipt receipt = register.createReceipt();
-        
+        filling.accept(receipt);
         for (Map.Entry<Product, Integer> entry : items.entrySet()) {
-            Product product = entry.getKey();
-            int quantity = entry.getValue();
-            
-            if (product.isExpired()) {
-                throw new IllegalStateException("Cannot sell expired product: " + product.getName());
+            salesVelocity.recordSale(entry.getKey(), entry.getValue());
+        }
+        for (Receipt.Discount discount : discounting.apply(receipt)) {
+            receipt.addDiscount(discount);
+        }
+        return recordReceipt(receipt);
+    }
+
+    private static void sellFromLots(Receipt receipt, Map<Product, Integer> items, Receipt.LotPricer pricer) {
+        for (Map.Entry<Product, Integer> entry : items.entrySet()) {
+            receipt.addItemFromLots(entry.getKey(), entry.getValue(), pricer);
+        }
+    }
+
+    private long lotPriceMinor(Product product, ProductLot lot) {
+        return Money.toMinor(calculateLotPrice(product, lot));
+    }
+
+    // Sells a basket of product indexes (positions in getProducts()) into the caller's reusable buffer.
+    // The receipt file is not written; save it from the buffer or with saveReceiptToFile when needed.
+    public Receipt processSale(CashRegister register, SaleBasket basket, ReceiptBuffer buffer) {
+        Receipt receipt = commitBasket(register, basket);
+        syncJournal();
+        buffer.fill(receipt);
+        return receipt;
+    }
+
+    private synchronized Receipt commitBasket(CashRegister register, SaleBasket basket) {
+        checkJournal();
+        if (register.getAssignedCashier() == null) {
+            throw new IllegalStateException("No cashier assigned to register");
+        }
+
+        for (int i = 0; i < basket.size(); i++) {
+            checkSellable(products.get(basket.getProductIndex(i)), basket.getQuantity(i));
+        }
+        Receipt receipt = register.createReceipt(basket.size());
+        for (int i = 0; i < basket.size(); i++) {
+            Product product = products.get(basket.getProductIndex(i));
+            int quantity = basket.getQuantity(i);
+            receipt.addItemFromLots(product, quantity, this::lotPriceMinor);
+            salesVelocity.recordSale(product, quantity);
+        }
+        if (!promotions.isEmpty()) {
+            for (Receipt.Discount discount : promotions.evaluate(receipt.getItems())) {
+                receipt.addDiscount(discount);
             }
-            
-            double unitPrice = calculateProductPrice(product);
-            receipt.addItem(product, quantity, unitPrice);
         }
+        recordReceipt(receipt);
+        if (journal != null) {
+            journal.saleCommitted(register, receipt, null);
+        }
+        return receipt;
+    }
 
-        totalRevenue += receipt.getTotalAmount();
-        allReceipts.add(receipt);
-        
-        // Save receipt to file
-        saveReceiptToFile(receipt);
+    // Stock only changes under the store lock, so the check holds until the sale is recorded
+    private static void checkSellable(Product product, int quantity) {
+        if (product.isExpired()) {
+            throw new IllegalStateException("Cannot sell expired product: " + product.getName());
+        }
+        int sellable = product.getSellableQuantity();
+        if (quantity > sellable) {
+            throw new Product.InsufficientStockException(product, quantity - sellable);
+        }
+    }
+
+    private Receipt recordReceipt(Receipt receipt) {
+        totalRevenueMinor += receipt.getTotalAmountMinor();
+        int position = allReceipts.add(receipt);
+        receiptIndex.add(position, receipt);
+        publishSnapshot();
+        for (ReceiptListener listener : receiptListeners) {
+            listener.onReceiptCommitted(receipt);
+        }
+        return receipt;
+    }
+
+    private void publishSnapshot() {
+        snapshot = new StoreSnapshot(snapshot.getVersion() + 1, totalRevenueMinor, totalDeliveryCostsMinor,
+                                     totalSalaryCostsMinor, allReceipts.size(), products.size(), cashiers.size());
     }
 
-    private void saveReceiptToFile(Receipt receipt) {
-        String filename = String.format("receipt_%d.txt", receipt.getReceiptNumber());
+    public void saveReceiptToFile(Receipt receipt) {
+        String filename = receiptDirectory
+            .resolve(String.format("receipt_%d.txt", receipt.getReceiptNumber()))
+            .toString();
         try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
             writer.write(receipt.generateReceiptText());
         } catch (IOException e) {
@@ -95,44 +578,147 @@ public class Store implements Serializable {
     }
 
     public double calculateProfit() {
-        return totalRevenue - totalDeliveryCosts - totalSalaryCosts;
+        return snapshot.calculateProfit();
     }
 
     public List<Product> getExpiredProducts() {
-        return products.stream()
+        return products.view().stream()
                       .filter(Product::isExpired)
                       .toList();
     }
 
     public List<Product> getProductsNearExpiration() {
-        return products.stream()
+        return products.view().stream()
                       .filter(p -> p.isNearExpiration(daysUntilDiscount))
                       .toList();
     }
 
-    // Getters
+    // In-stock, unexpired products in getProducts() order, read without the store lock.
+    // Cost follows the number of products returned, not the size of the catalog.
+    public List<Product> getSellableProducts() {
+        List<Product> result = new ArrayList<>();
+        sellableProductsIterator().forEachRemaining(result::add);
+        return result;
+    }
+
+    // As getSellableProducts(), walking the index lazily so callers that stream the catalog hold no list
+    public Iterator<Product> sellableProductsIterator() {
+        catchUpSellableDay();
+        List<Product> all = products.view();
+        return new Iterator<>() {
+            private int next = nextPosition(0);
+
+            private int nextPosition(int from) {
+                int position = sellable.nextSetBit(from);
+                return position < all.size() ? position : -1;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public Product next() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                Product product = all.get(next);
+                next = nextPosition(next + 1);
+                return product;
+            }
+        };
+    }
+
+    public boolean isSellable(Product product) {
+        catchUpSellableDay();
+        Integer position = productPositions.get(product.getId());
+        return position != null && sellable.get(position);
+    }
+
+    // Takes the store lock at most once a day, when the first reader sees the date change
+    private void catchUpSellableDay() {
+        LocalDate today = Today.get();
+        if (today.isAfter(sellableDay)) {
+            advanceSellableDay(today);
+        }
+    }
+
+    public Product findProductById(String id) {
+        return searchIndex.findById(id);
+    }
+
+    // Position of the product in getProducts(), as used by SaleBasket; -1 if unknown
+    public int getProductIndex(String id) {
+        Integer position = productPositions.get(id);
+        return position != null ? position : -1;
+    }
+
+    // Prefix match on product ID or name, case-insensitive
+    public List<Product> searchProducts(String prefix, int limit) {
+        return searchIndex.findByPrefix(prefix, limit);
+    }
+
+    public List<Receipt> queryReceipts(ReceiptQuery query) {
+        return receiptIndex.find(query, allReceipts.view());
+    }
+
+    // Position in getAllReceipts() of the first receipt at or after the given time
+    public int findFirstReceiptFrom(LocalDateTime time) {
+        return receiptIndex.lowerBound(time);
+    }
+
+    public List<Receipt> getReceiptsPage(int offset, int limit) {
+        List<Receipt> receipts = allReceipts.view();
+        int from = Math.min(Math.max(offset, 0), receipts.size());
+        int to = (int) Math.min((long) from + Math.max(limit, 0), receipts.size());
+        return receipts.subList(from, to);
+    }
+
+    // Receipts are committed under the store lock, so they are stored in receipt number order
+    public List<Receipt> getReceiptsByNumberRange(int fromNumber, int toNumber) {
+        List<Receipt> receipts = allReceipts.view();
+        int from = lowerBound(receipts, fromNumber);
+        int to = toNumber == Integer.MAX_VALUE ? receipts.size() : lowerBound(receipts, toNumber + 1);
+        return receipts.subList(from, Math.max(from, to));
+    }
+
+    private static int lowerBound(List<Receipt> receipts, int receiptNumber) {
+        int low = 0;
+        int high = receipts.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (receipts.get(mid).getReceiptNumber() < receiptNumber) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Getters return read-only views fixed at the current size; no copying
     public String getName() { return name; }
-    public List<Product> getProducts() { return new ArrayList<>(products); }
-    public List<Cashier> getCashiers() { return new ArrayList<>(cashiers); }
-    public List<CashRegister> getRegisters() { return new ArrayList<>(registers); }
-    public List<Receipt> getAllReceipts() { return new ArrayList<>(allReceipts); }
-    public double getTotalRevenue() { return totalRevenue; }
-    public double getTotalDeliveryCosts() { return totalDeliveryCosts; }
-    public double getTotalSalaryCosts() { return totalSalaryCosts; }
-    public int getTotalReceiptsCount() { return allReceipts.size(); }
+    public List<Product> getProducts() { return products.view(); }
+    public List<Cashier> getCashiers() { return cashiers.view(); }
+    public List<CashRegister> getRegisters() { return registers.view(); }
+    public List<Receipt> getAllReceipts() { return allReceipts.view(); }
+    public StoreSnapshot getSnapshot() { return snapshot; }
+    public double getTotalRevenue() { return snapshot.getTotalRevenue(); }
+    public double getTotalDeliveryCosts() { return snapshot.getTotalDeliveryCosts(); }
+    public double getTotalSalaryCosts() { return snapshot.getTotalSalaryCosts(); }
+    public int getTotalReceiptsCount() { return snapshot.getReceiptsCount(); }
 
     public void displayAvailableProducts() {
         System.out.println("\nНалични продукти:");
         System.out.println("------------------");
-        for (Product product : products) {
-            if (!product.isExpired() && product.getQuantity() > 0) {
-                System.out.printf("ID: %s | Име: %s | Цена: %.2f лв. | Количество: %d | Дата на изтичане: %s%n",
-                    product.getId(),
-                    product.getName(),
-                    calculateProductPrice(product),
-                    product.getQuantity(),
-                    product.getExpirationDate());
-            }
+        for (Product product : getSellableProducts()) {
+            System.out.printf("ID: %s | Име: %s | Цена: %.2f лв. | Количество: %d | Дата на изтичане: %s%n",
+                product.getId(),
+                product.getName(),
+                calculateProductPrice(product),
+                product.getSellableQuantity(),
+                product.getExpirationDate());
         }
         System.out.println("------------------");
     }
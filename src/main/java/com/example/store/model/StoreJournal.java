@@ -0,0 +1,29 @@
+package com.example.store.model;
+
+import java.time.LocalDate;
+
+// Receives every store mutation under the store lock, in commit order
+public interface StoreJournal {
+    // Called under the store lock before a mutation is applied; throws if the journal can no longer record it
+    default void checkWritable() {
+    }
+
+    // Called after a mutation has been journaled, outside the store lock for sales; returns once it is durable
+    default void sync() {
+    }
+
+    // The product arrives with its first lot; any other lots it already holds follow as lotReceived
+    void productAdded(Product product, ProductLot firstLot);
+
+    void cashierAdded(Cashier cashier);
+
+    void registerAdded(CashRegister register);
+
+    void saleCommitted(CashRegister register, Receipt receipt, String saleId);
+
+    void productRestocked(Product product, int quantity);
+
+    void lotReceived(Product product, ProductLot lot);
+
+    void expiredLotsDiscarded(LocalDate today);
+}
@@ -0,0 +1,56 @@
+package com.example.store.model;
+
+import com.example.store.util.Money;
+
+import java.io.Serializable;
+
+public final class StoreSnapshot implements Serializable {
+    private final long version;
+    private final long totalRevenueMinor;
+    private final long totalDeliveryCostsMinor;
+    private final long totalSalaryCostsMinor;
+    private final int receiptsCount;
+    private final int productsCount;
+    private final int cashiersCount;
+
+    StoreSnapshot(long version, long totalRevenueMinor, long totalDeliveryCostsMinor, long totalSalaryCostsMinor,
+                  int receiptsCount, int productsCount, int cashiersCount) {
+        this.version = version;
+        this.totalRevenueMinor = totalRevenueMinor;
+        this.totalDeliveryCostsMinor = totalDeliveryCostsMinor;
+        this.totalSalaryCostsMinor = totalSalaryCostsMinor;
+        this.receiptsCount = receiptsCount;
+        this.productsCount = productsCount;
+        this.cashiersCount = cashiersCount;
+    }
+
+    static StoreSnapshot empty() {
+        return new StoreSnapshot(0, 0, 0, 0, 0, 0, 0);
+    }
+
+    public double calculateProfit() {
+        return Money.toMajor(calculateProfitMinor());
+    }
+
+    public long calculateProfitMinor() {
+        return totalRevenueMinor - totalDeliveryCostsMinor - totalSalaryCostsMinor;
+    }
+
+    // Getters
+    public long getVersion() { return version; }
+    public double getTotalRevenue() { return Money.toMajor(totalRevenueMinor); }
+    public double getTotalDeliveryCosts() { return Money.toMajor(totalDeliveryCostsMinor); }
+    public double getTotalSalaryCosts() { return Money.toMajor(totalSalaryCostsMinor); }
+    public long getTotalRevenueMinor() { return totalRevenueMinor; }
+    public long getTotalDeliveryCostsMinor() { return totalDeliveryCostsMinor; }
+    public long getTotalSalaryCostsMinor() { return totalSalaryCostsMinor; }
+    public int getReceiptsCount() { return receiptsCount; }
+    public int getProductsCount() { return productsCount; }
+    public int getCashiersCount() { return cashiersCount; }
+
+    @Override
+    public String toString() {
+        return String.format("StoreSnapshot{version=%d, revenue=%s, receipts=%d}",
+                           version, Money.format(totalRevenueMinor), receiptsCount);
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.store.pipeline;
+
+import com.example.store.model.CashRegister;
+import com.example.store.model.LotPrice;
+import com.example.store.model.Product;
+import com.example.store.model.Receipt;
+import com.example.store.model.Store;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Runs sales as a three-stage pipeline. Each register has its own bounded ring
+ * (a preallocated ArrayBlockingQueue) drained by a thread that validates and
+ * prices its sales. A single writer commits stock and totals to the store in
+ * batches, and a persistence thread writes the receipt files. Stages hand off
+ * through bounded queues, so a slow stage pushes back on the registers, and a
+ * full ring rejects new sales instead of queuing them without limit.
+ */
+public class SalePipeline implements AutoCloseable {
+    private static final long POLL_MILLIS = 100;
+
+    private final Store store;
+    private final int ringCapacity;
+    private final Map<String, Ring> rings;
+    private final BlockingQueue<SaleRequest> commitQueue;
+    private final BlockingQueue<SaleRequest> persistQueue;
+    private final Thread writer;
+    private final Thread persister;
+    // Submitters share it while they check closed and enqueue; close() takes it exclusively
+    private final ReadWriteLock admission;
+    private volatile boolean closed;
+
+    public SalePipeline(Store store, int ringCapacity) {
+        if (ringCapacity <= 0) {
+            throw new IllegalArgumentException("Ring capacity must be positive");
+        }
+        this.store = store;
+        this.ringCapacity = ringCapacity;
+        this.rings = new ConcurrentHashMap<>();
+        this.commitQueue = new ArrayBlockingQueue<>(ringCapacity);
+        this.persistQueue = new ArrayBlockingQueue<>(ringCapacity);
+        this.admission = new ReentrantReadWriteLock();
+        this.writer = startThread(this::runWriter, "sale-commit");
+        this.persister = startThread(this::runPersister, "sale-persist");
+    }
+
+    // Fails fast with RejectedExecutionException when the register's ring is full
+    public CompletableFuture<Receipt> trySubmit(CashRegister register, Map<Product, Integer> items) {
+        return submit(register, items, null, Duration.ZERO);
+    }
+
+    // Waits up to the timeout for space in the register's ring
+    public CompletableFuture<Receipt> submit(CashRegister register, Map<Product, Integer> items,
+                                             String saleId, Duration timeout) {
+        SaleRequest request = new SaleRequest(register, Map.copyOf(items), saleId);
+        // Holding the lock until the request is queued means a pricer cannot stop with it still in the ring
+        admission.readLock().lock();
+        try {
+            if (closed) {
+                throw new RejectedExecutionException("Sale pipeline is closed");
+            }
+            Ring ring = rings.computeIfAbsent(register.getId(), id -> new Ring(id));
+            if (!ring.queue.offer(request, timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new RejectedExecutionException("Register " + register.getId() + " is busy");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for register " + register.getId(), e);
+        } finally {
+            admission.readLock().unlock();
+        }
+        return request.result;
+    }
+
+    public int getQueuedCount(CashRegister register) {
+        Ring ring = rings.get(register.getId());
+        return ring != null ? ring.queue.size() : 0;
+    }
+
+    // Stops accepting sales and waits for everything already submitted to be persisted
+    @Override
+    public void close() {
+        admission.writeLock().lock();
+        try {
+            closed = true;
+        } finally {
+            admission.writeLock().unlock();
+        }
+        try {
+            for (Ring ring : rings.values()) {
+                ring.pricer.join();
+            }
+            writer.join();
+            persister.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Thread startThread(Runnable task, String name) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    // Stage 1: validate and price on the register's own thread
+    private void runPricer(Ring ring) {
+        while (!closed || !ring.queue.isEmpty()) {
+            try {
+                SaleRequest request = ring.queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (request == null) {
+                    continue;
+                }
+                try {
+                    price(request);
+                } catch (RuntimeException e) {
+                    request.result.completeExceptionally(e);
+                    continue;
+                }
+                commitQueue.put(request);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void price(SaleRequest request) {
+        if (request.register.getAssignedCashier() == null) {
+            throw new IllegalStateException("No cashier assigned to register");
+        }
+        for (Map.Entry<Product, Integer> entry : request.items.entrySet()) {
+            Product product = entry.getKey();
+            if (entry.getValue() <= 0) {
+                throw new IllegalArgumentException("Quantity must be positive for " + product.getName());
+            }
+            if (product.isExpired()) {
+                throw new IllegalStateException("Cannot sell expired product: " + product.getName());
+            }
+            int sellable = product.getSellableQuantity();
+            if (sellable < entry.getValue()) {
+                throw new Product.InsufficientStockException(product, entry.getValue() - sellable);
+            }
+            request.quotes.put(product, store.quoteLotPrice(product));
+        }
+    }
+
+    // Stage 2: the only thread that commits pipelined sales to the store
+    private void runWriter() {
+        List<SaleRequest> batch = new ArrayList<>(ringCapacity);
+        while (!closed || !commitQueue.isEmpty() || pricersRunning()) {
+            try {
+                SaleRequest first = commitQueue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                commitQueue.drainTo(batch, ringCapacity - 1);
+                for (SaleRequest request : batch) {
+                    try {
+                        request.receipt = store.commitPricedSale(request.register, request.items,
+                                                                 request.quotes, request.saleId);
+                    } catch (RuntimeException e) {
+                        request.result.completeExceptionally(e);
+                        continue;
+                    }
+                    persistQueue.put(request);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Stage 3: write and render receipt files off the commit path
+    private void runPersister() {
+        while (!closed || !persistQueue.isEmpty() || writer.isAlive()) {
+            try {
+                SaleRequest request = persistQueue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (request == null) {
+                    continue;
+                }
+                try {
+                    store.saveReceiptToFile(request.receipt);
+                    request.result.complete(request.receipt);
+                } catch (RuntimeException e) {
+                    request.result.completeExceptionally(e);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private boolean pricersRunning() {
+        for (Ring ring : rings.values()) {
+            if (ring.pricer.isAlive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private final class Ring {
+        private final BlockingQueue<SaleRequest> queue;
+        private final Thread pricer;
+
+        Ring(String registerId) {
+            this.queue = new ArrayBlockingQueue<>(ringCapacity);
+            this.pricer = startThread(() -> runPricer(this), "sale-price-" + registerId);
+        }
+    }
+
+    private static final class SaleRequest {
+        private final CashRegister register;
+        private final Map<Product, Integer> items;
+        private final String saleId;
+        private final Map<Product, LotPrice> quotes;
+        private final CompletableFuture<Receipt> result;
+        private Receipt receipt;
+
+        SaleRequest(CashRegister register, Map<Product, Integer> items, String saleId) {
+            this.register = register;
+            this.items = items;
+            this.saleId = saleId;
+            this.quotes = new HashMap<>();
+            this.result = new CompletableFuture<>();
+        }
+    }
+}
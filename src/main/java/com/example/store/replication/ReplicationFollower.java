@@ -0,0 +1,122 @@
+package com.example.store.replication;
+
+import com.example.store.model.Store;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot-standby side of WAL replication. Listens on a loopback port, applies the
+ * primary's log entries to its own Store replica in sequence order and can be
+ * promoted to take over when the primary is gone.
+ */
+public class ReplicationFollower implements Closeable {
+    private final Store replica;
+    private final ServerSocket serverSocket;
+    private final Thread receiver;
+    private final Object progress = new Object();
+
+    private volatile long lastAppliedSequence;
+    private volatile boolean closed;
+    private volatile Socket connection;
+    private volatile RuntimeException applyFailure;
+
+    public ReplicationFollower(Store replica, int port) throws IOException {
+        this.replica = replica;
+        this.serverSocket = new ServerSocket(port, 1, InetAddress.getLoopbackAddress());
+        this.receiver = new Thread(this::runReceiver, "wal-follower");
+        this.receiver.setDaemon(true);
+        this.receiver.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public long getLastAppliedSequence() {
+        return lastAppliedSequence;
+    }
+
+    public boolean awaitSequence(long sequence, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (progress) {
+            while (lastAppliedSequence < sequence) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(progress, remaining);
+            }
+        }
+        return true;
+    }
+
+    // Stops replicating and hands the replica over to serve sales
+    public Store promote() throws IOException {
+        close();
+        if (applyFailure != null) {
+            throw new IllegalStateException("Replica diverged at sequence " + (lastAppliedSequence + 1),
+                                            applyFailure);
+        }
+        return replica;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        Socket current = connection;
+        if (current != null) {
+            current.close();
+        }
+        try {
+            receiver.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runReceiver() {
+        while (!closed && applyFailure == null) {
+            try (Socket socket = serverSocket.accept()) {
+                connection = socket;
+                OutputStream out = socket.getOutputStream();
+                out.write(("LAST " + lastAppliedSequence + "\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+
+                BufferedReader in = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                String line;
+                while (!closed && (line = in.readLine()) != null) {
+                    apply(WalEntry.decode(line));
+                }
+            } catch (IOException e) {
+                // Primary went away or we are closing; wait for the next connection
+            } catch (RuntimeException e) {
+                applyFailure = e;
+            } finally {
+                connection = null;
+            }
+        }
+    }
+
+    private void apply(WalEntry entry) {
+        if (entry.getSequence() <= lastAppliedSequence) {
+            return;
+        }
+        entry.applyTo(replica);
+        lastAppliedSequence = entry.getSequence();
+        synchronized (progress) {
+            progress.notifyAll();
+        }
+    }
+}
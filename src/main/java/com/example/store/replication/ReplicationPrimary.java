@@ -0,0 +1,362 @@
+package com.example.store.replication;
+
+import com.example.store.model.*;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Journals store mutations to a local write-ahead log and ships them to a
+ * follower over a socket. The store enqueues entries into a bounded queue (a
+ * full queue blocks the store); a background shipper appends them to the log
+ * in batches, forces each batch to disk and then streams it without waiting
+ * for acknowledgements. After a (re)connect the follower reports the last
+ * sequence it applied and the shipper replays the rest from the log.
+ *
+ * <p>By default {@link #sync()} waits for the forced batch holding the caller's
+ * entry, so the store acknowledges a sale only once it is on disk; concurrent
+ * sales share one force. {@link Durability#WRITE_BEHIND} skips the wait and
+ * can lose the entries after {@link #getLastWrittenSequence()} in a crash. A
+ * failed log write stops the shipper and the store refuses further mutations.
+ */
+public class ReplicationPrimary implements StoreJournal, Closeable {
+    public enum Durability {
+        SYNC,
+        WRITE_BEHIND
+    }
+
+    private static final int MAX_BATCH = 1024;
+    private static final int DEFAULT_QUEUE_CAPACITY = 16 * 1024;
+    private static final long POLL_MILLIS = 100;
+    private static final long RECONNECT_INTERVAL_MILLIS = 500;
+    private static final int HANDSHAKE_TIMEOUT_MILLIS = 1000;
+
+    private final Path walFile;
+    private final FileChannel wal;
+    private final InetSocketAddress follower;
+    private final BlockingQueue<WalEntry> pending;
+    private final Durability durability;
+    private final Object progress = new Object();
+    private final Thread shipper;
+
+    private long nextSequence;
+    private volatile long lastWrittenSequence;
+    private volatile long lastShippedSequence;
+    private volatile boolean closed;
+    private volatile IOException walFailure;
+    private Socket socket;
+    private volatile Writer out;
+    private long lastConnectAttempt;
+
+    public ReplicationPrimary(Path walFile, InetSocketAddress follower) throws IOException {
+        this(walFile, follower, Durability.SYNC, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public ReplicationPrimary(Path walFile, InetSocketAddress follower, Durability durability, int queueCapacity)
+            throws IOException {
+        this.walFile = walFile;
+        this.wal = FileChannel.open(walFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                    StandardOpenOption.WRITE);
+        // Drop a line torn by a crash mid-write; it was never acknowledged as written
+        wal.truncate(completeLength(wal));
+        wal.position(wal.size());
+        this.follower = follower;
+        this.pending = new LinkedBlockingQueue<>(queueCapacity);
+        this.durability = durability;
+        this.lastWrittenSequence = lastSequenceIn(walFile);
+        this.nextSequence = lastWrittenSequence + 1;
+
+        this.shipper = new Thread(this::runShipper, "wal-shipper");
+        this.shipper.setDaemon(true);
+        this.shipper.start();
+    }
+
+    @Override
+    public synchronized void productAdded(Product product, ProductLot firstLot) {
+        append(WalEntry.product(nextSequence++, product, firstLot));
+    }
+
+    @Override
+    public synchronized void cashierAdded(Cashier cashier) {
+        append(WalEntry.cashier(nextSequence++, cashier));
+    }
+
+    @Override
+    public synchronized void registerAdded(CashRegister register) {
+        append(WalEntry.register(nextSequence++, register));
+    }
+
+    @Override
+    public synchronized void saleCommitted(CashRegister register, Receipt receipt, String saleId) {
+        append(WalEntry.sale(nextSequence++, register, receipt, saleId));
+    }
+
+    @Override
+    public synchronized void productRestocked(Product product, int quantity) {
+        append(WalEntry.restock(nextSequence++, product, quantity));
+    }
+
+    @Override
+    public synchronized void lotReceived(Product product, ProductLot lot) {
+        append(WalEntry.lot(nextSequence++, product, lot));
+    }
+
+    @Override
+    public synchronized void expiredLotsDiscarded(LocalDate today) {
+        append(WalEntry.discard(nextSequence++, today));
+    }
+
+    @Override
+    public void checkWritable() {
+        IOException failure = walFailure;
+        if (failure != null) {
+            throw new IllegalStateException("Write-ahead log failed; store mutations are refused", failure);
+        }
+        if (closed) {
+            throw new IllegalStateException("Write-ahead log is closed; store mutations are refused");
+        }
+    }
+
+    // Waits for the force that covers every entry appended so far
+    @Override
+    public void sync() {
+        if (durability == Durability.WRITE_BEHIND) {
+            return;
+        }
+        long target;
+        synchronized (this) {
+            target = nextSequence - 1;
+        }
+        synchronized (progress) {
+            while (lastWrittenSequence < target) {
+                IOException failure = walFailure;
+                if (failure != null) {
+                    throw new IllegalStateException("Write-ahead log failed before entry " + target
+                                                    + " was durable", failure);
+                }
+                if (!shipper.isAlive()) {
+                    throw new IllegalStateException("Write-ahead log closed before entry " + target + " was durable");
+                }
+                try {
+                    progress.wait(POLL_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted waiting for entry " + target + " to be durable", e);
+                }
+            }
+        }
+    }
+
+    // Blocks while the queue is full; after a failure the entry is dropped and sync() reports it
+    private void append(WalEntry entry) {
+        try {
+            while (!pending.offer(entry, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (walFailure != null) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Getters
+    public long getLastWrittenSequence() { return lastWrittenSequence; }
+    public long getLastShippedSequence() { return lastShippedSequence; }
+    public int getPendingCount() { return pending.size(); }
+    public boolean isConnected() { return out != null; }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        try {
+            shipper.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        disconnect();
+        wal.close();
+        if (walFailure != null) {
+            throw walFailure;
+        }
+    }
+
+    private void runShipper() {
+        List<WalEntry> batch = new ArrayList<>(MAX_BATCH);
+        while (!closed || !pending.isEmpty()) {
+            try {
+                WalEntry first = pending.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    pending.drainTo(batch, MAX_BATCH - 1);
+                    String lines = encode(batch);
+                    appendToWal(lines);
+                    lastWrittenSequence = batch.get(batch.size() - 1).getSequence();
+                    wakeWaiters();
+                    if (out != null) {
+                        ship(lines, lastWrittenSequence);
+                    }
+                }
+                if (out == null) {
+                    tryConnect();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                // The log is the source of truth; a failed write stops shipping and fails later appends
+                walFailure = e;
+                closed = true;
+                pending.clear();
+                wakeWaiters();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void wakeWaiters() {
+        synchronized (progress) {
+            progress.notifyAll();
+        }
+    }
+
+    private static String encode(List<WalEntry> batch) {
+        StringBuilder lines = new StringBuilder(batch.size() * 96);
+        for (WalEntry entry : batch) {
+            lines.append(entry.encode()).append('\n');
+        }
+        return lines.toString();
+    }
+
+    private void appendToWal(String lines) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(lines.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            wal.write(buffer);
+        }
+        wal.force(false);
+    }
+
+    private void ship(String lines, long sequence) {
+        try {
+            out.write(lines);
+            out.flush();
+            lastShippedSequence = sequence;
+        } catch (IOException e) {
+            disconnect();
+        }
+    }
+
+    private void tryConnect() {
+        long now = System.currentTimeMillis();
+        if (now - lastConnectAttempt < RECONNECT_INTERVAL_MILLIS) {
+            return;
+        }
+        lastConnectAttempt = now;
+        try {
+            socket = new Socket();
+            socket.connect(follower, 1000);
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(HANDSHAKE_TIMEOUT_MILLIS);
+            BufferedReader in = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            String handshake = in.readLine();
+            if (handshake == null || !handshake.startsWith("LAST ")) {
+                throw new IOException("Unexpected follower handshake: " + handshake);
+            }
+            long followerSequence = Long.parseLong(handshake.substring(5).trim());
+            socket.setSoTimeout(0);
+            out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+            replayFrom(followerSequence);
+        } catch (IOException | RuntimeException e) {
+            disconnect();
+        }
+    }
+
+    // Ships everything in the log after the follower's last applied sequence
+    private void replayFrom(long followerSequence) throws IOException {
+        long shipped = followerSequence;
+        try (BufferedReader reader = Files.newBufferedReader(walFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                long sequence = Long.parseLong(line.substring(0, line.indexOf('\t')));
+                if (sequence > followerSequence && sequence <= lastWrittenSequence) {
+                    out.write(line);
+                    out.write('\n');
+                    shipped = sequence;
+                }
+            }
+        }
+        out.flush();
+        lastShippedSequence = shipped;
+    }
+
+    private void disconnect() {
+        out = null;
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // Nothing to do; the follower will be re-synced from the log
+            }
+            socket = null;
+        }
+    }
+
+    // Length of the log up to and including its last newline
+    private static long completeLength(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long end = channel.size();
+        while (end > 0) {
+            int chunk = (int) Math.min(buffer.capacity(), end);
+            long start = end - chunk;
+            buffer.clear().limit(chunk);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, start + buffer.position()) < 0) {
+                    break;
+                }
+            }
+            for (int i = chunk - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n') {
+                    return start + i + 1;
+                }
+            }
+            end = start;
+        }
+        return 0;
+    }
+
+    private static long lastSequenceIn(Path walFile) throws IOException {
+        long last = 0;
+        try (BufferedReader reader = Files.newBufferedReader(walFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int tab = line.indexOf('\t');
+                if (tab > 0) {
+                    last = Long.parseLong(line.substring(0, tab));
+                }
+            }
+        }
+        return last;
+    }
+}
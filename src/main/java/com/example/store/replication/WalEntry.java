@@ -0,0 +1,203 @@
+package com.example.store.replication;
+
+import com.example.store.model.*;
+import com.example.store.util.Money;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One store mutation in the write-ahead log, encoded as a single text line:
+ * sequence, type and URL-encoded fields separated by tabs.
+ */
+public class WalEntry {
+    public enum Type {
+        PRODUCT,
+        CASHIER,
+        REGISTER,
+        SALE,
+        RESTOCK,
+        LOT,
+        DISCARD
+    }
+
+    private final long sequence;
+    private final Type type;
+    private final String[] fields;
+
+    private WalEntry(long sequence, Type type, String... fields) {
+        this.sequence = sequence;
+        this.type = type;
+        this.fields = fields;
+    }
+
+    // Price, expiry and quantity all come from the one lot the product is created with
+    static WalEntry product(long sequence, Product product, ProductLot lot) {
+        return new WalEntry(sequence, Type.PRODUCT, product.getCategory().name(), product.getId(),
+                            product.getName(), Double.toString(lot.getDeliveryPrice()),
+                            String.valueOf(lot.getExpirationDate()), Integer.toString(lot.getQuantity()));
+    }
+
+    static WalEntry cashier(long sequence, Cashier cashier) {
+        return new WalEntry(sequence, Type.CASHIER, cashier.getId(), cashier.getName(),
+                            Double.toString(cashier.getMonthlySalary()));
+    }
+
+    static WalEntry register(long sequence, CashRegister register) {
+        return new WalEntry(sequence, Type.REGISTER, register.getId());
+    }
+
+    static WalEntry sale(long sequence, CashRegister register, Receipt receipt, String saleId) {
+        StringBuilder items = new StringBuilder();
+        for (Receipt.ReceiptItem item : receipt.getItems()) {
+            if (items.length() > 0) {
+                items.append(',');
+            }
+            items.append(encodeField(item.getProduct().getId())).append(':')
+                 .append(item.getQuantity()).append(':')
+                 .append(item.getUnitPrice());
+        }
+        StringBuilder discounts = new StringBuilder();
+        for (Receipt.Discount discount : receipt.getDiscounts()) {
+            if (discounts.length() > 0) {
+                discounts.append(',');
+            }
+            discounts.append(encodeField(discount.getPromotionId())).append(':')
+                     .append(encodeField(discount.getDescription())).append(':')
+                     .append(Money.format(discount.getAmountMinor()));
+        }
+        return new WalEntry(sequence, Type.SALE, register.getId(), receipt.getCashier().getId(),
+                            saleId != null ? saleId : "", Integer.toString(receipt.getReceiptNumber()),
+                            items.toString(), discounts.toString());
+    }
+
+    static WalEntry restock(long sequence, Product product, int quantity) {
+        return new WalEntry(sequence, Type.RESTOCK, product.getId(), Integer.toString(quantity));
+    }
+
+    static WalEntry lot(long sequence, Product product, ProductLot lot) {
+        return new WalEntry(sequence, Type.LOT, product.getId(), Double.toString(lot.getDeliveryPrice()),
+                            String.valueOf(lot.getExpirationDate()), Integer.toString(lot.getQuantity()));
+    }
+
+    static WalEntry discard(long sequence, LocalDate today) {
+        return new WalEntry(sequence, Type.DISCARD, today.toString());
+    }
+
+    public String encode() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(sequence).append('\t').append(type);
+        for (String field : fields) {
+            sb.append('\t').append(encodeField(field));
+        }
+        return sb.toString();
+    }
+
+    public static WalEntry decode(String line) {
+        String[] parts = line.split("\t", -1);
+        if (parts.length < 2) {
+            throw new IllegalArgumentException("Malformed WAL entry: " + line);
+        }
+        String[] fields = Arrays.copyOfRange(parts, 2, parts.length);
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = decodeField(fields[i]);
+        }
+        return new WalEntry(Long.parseLong(parts[0]), Type.valueOf(parts[1]), fields);
+    }
+
+    // Applies this entry to a replica; entries are idempotent for objects that already exist
+    public void applyTo(Store replica) {
+        switch (type) {
+            case PRODUCT -> {
+                if (replica.findProductById(fields[1]) == null) {
+                    LocalDate expirationDate = fields[4].equals("null") ? null : LocalDate.parse(fields[4]);
+                    double deliveryPrice = Double.parseDouble(fields[3]);
+                    int quantity = Integer.parseInt(fields[5]);
+                    replica.addProduct(Product.ProductCategory.valueOf(fields[0]) == Product.ProductCategory.FOOD
+                        ? new FoodProduct(fields[1], fields[2], deliveryPrice, expirationDate, quantity)
+                        : new NonFoodProduct(fields[1], fields[2], deliveryPrice, expirationDate, quantity));
+                }
+            }
+            case CASHIER -> {
+                if (replica.findCashierById(fields[0]) == null) {
+                    replica.addCashier(new Cashier(fields[0], fields[1], Double.parseDouble(fields[2])));
+                }
+            }
+            case REGISTER -> {
+                if (replica.findRegisterById(fields[0]) == null) {
+                    replica.addCashRegister(new CashRegister(fields[0]));
+                }
+            }
+            case SALE -> applySale(replica);
+            case RESTOCK -> replica.restockProduct(requireProduct(replica, fields[0]), Integer.parseInt(fields[1]));
+            case LOT -> replica.receiveLot(requireProduct(replica, fields[0]),
+                new ProductLot(Double.parseDouble(fields[1]),
+                               fields[2].equals("null") ? null : LocalDate.parse(fields[2]),
+                               Integer.parseInt(fields[3])));
+            case DISCARD -> replica.discardExpiredLots(LocalDate.parse(fields[0]));
+        }
+    }
+
+    private void applySale(Store replica) {
+        CashRegister register = replica.findRegisterById(fields[0]);
+        Cashier cashier = replica.findCashierById(fields[1]);
+        if (register == null || cashier == null) {
+            throw new IllegalStateException("Unknown register or cashier in WAL entry " + sequence);
+        }
+        Cashier current = register.getAssignedCashier();
+        if (current != cashier) {
+            if (current != null) {
+                current.removeFromRegister();
+            }
+            cashier.assignToRegister(register);
+        }
+
+        List<Receipt.ReceiptItem> lines = new ArrayList<>();
+        if (!fields[4].isEmpty()) {
+            for (String item : fields[4].split(",")) {
+                String[] parts = item.split(":");
+                Product product = requireProduct(replica, decodeField(parts[0]));
+                int quantity = Integer.parseInt(parts[1]);
+                double unitPrice = Double.parseDouble(parts[2]);
+                lines.add(new Receipt.ReceiptItem(product, quantity, unitPrice, unitPrice * quantity));
+            }
+        }
+        List<Receipt.Discount> discounts = new ArrayList<>();
+        if (fields.length > 5 && !fields[5].isEmpty()) {
+            for (String discount : fields[5].split(",")) {
+                String[] parts = discount.split(":");
+                discounts.add(new Receipt.Discount(decodeField(parts[0]), decodeField(parts[1]),
+                                                   Money.parse(parts[2])));
+            }
+        }
+
+        // Keep the replica's receipt numbers in step with the primary where possible
+        Receipt.advanceReceiptNumberPast(Integer.parseInt(fields[3]) - 1);
+        replica.replaySale(register, lines, discounts, fields[2].isEmpty() ? null : fields[2]);
+    }
+
+    private Product requireProduct(Store replica, String id) {
+        Product product = replica.findProductById(id);
+        if (product == null) {
+            throw new IllegalStateException("Unknown product " + id + " in WAL entry " + sequence);
+        }
+        return product;
+    }
+
+    private static String encodeField(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String decodeField(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+
+    // Getters
+    public long getSequence() { return sequence; }
+    public Type getType() { return type; }
+}
@@ -0,0 +1,56 @@
+package com.example.store.report;
+
+import com.example.store.model.Receipt;
+import com.example.store.model.Store;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Running report over a store's receipts since a fixed start time (e.g.
+ * month-to-date). Each refresh aggregates only the receipts committed since
+ * the previous refresh and merges them into the accumulated result.
+ */
+public class IncrementalReport {
+    private final Store store;
+    private final ReportEngine engine;
+    private final ReportPeriod period;
+    private final LocalDateTime since;
+    private final Instant sinceInstant;
+    private PeriodReport accumulated;
+    private int processed;
+    private boolean started;
+
+    public IncrementalReport(Store store, ReportEngine engine, ReportPeriod period, LocalDateTime since) {
+        this.store = store;
+        this.engine = engine;
+        this.period = period;
+        this.since = since;
+        // Compare instants, not local times, so the hour repeated when clocks go back is counted once
+        this.sinceInstant = since != null ? since.atZone(ZoneId.systemDefault()).toInstant() : null;
+        this.accumulated = new PeriodReport(period);
+    }
+
+    // Returns a snapshot; later refreshes do not change a report the caller already holds
+    public synchronized PeriodReport refresh() {
+        List<Receipt> receipts = store.getAllReceipts();
+        if (!started) {
+            // Skip straight to the first receipt in range using the store's time index
+            processed = since != null ? Math.min(store.findFirstReceiptFrom(since), receipts.size()) : 0;
+            started = true;
+        }
+        if (processed < receipts.size()) {
+            PeriodReport delta = engine.aggregate(receipts.subList(processed, receipts.size()), period,
+                receipt -> sinceInstant == null || !receipt.getInstant().isBefore(sinceInstant));
+            accumulated = accumulated.merge(delta);
+            processed = receipts.size();
+        }
+        return accumulated.copy();
+    }
+
+    public synchronized int getProcessedCount() {
+        return processed;
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.store.report;
+
+import com.example.store.model.Product;
+import com.example.store.model.Receipt;
+import com.example.store.util.Money;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Mergeable aggregate over a set of receipts: P&L per period bucket, sales per
+ * product and productivity per cashier. Partial reports built on separate
+ * chunks of the receipt history combine with merge().
+ */
+public class PeriodReport {
+    private final ReportPeriod period;
+    private final TreeMap<LocalDate, Totals> buckets;
+    private final Map<String, ProductSales> productSales;
+    private final Map<String, CashierStats> cashierStats;
+
+    public PeriodReport(ReportPeriod period) {
+        this.period = period;
+        this.buckets = new TreeMap<>();
+        this.productSales = new HashMap<>();
+        this.cashierStats = new HashMap<>();
+    }
+
+    void add(Receipt receipt) {
+        Totals totals = buckets.computeIfAbsent(period.bucketStart(receipt.getTimestamp().toLocalDate()),
+                                                d -> new Totals());
+        CashierStats cashier = cashierStats.computeIfAbsent(receipt.getCashier().getId(),
+                                                            id -> new CashierStats(receipt.getCashier().getName()));
+        totals.receipts++;
+        totals.revenueMinor += receipt.getTotalAmountMinor();
+        cashier.receipts++;
+        cashier.revenueMinor += receipt.getTotalAmountMinor();
+
+        for (int i = 0; i < receipt.getItemCount(); i++) {
+            Product product = receipt.getItemProduct(i);
+            int quantity = receipt.getItemQuantity(i);
+            // Cost as captured at sale time, so the report does not move when lots rotate
+            totals.costOfGoodsMinor += receipt.getItemCostMinor(i);
+            cashier.itemsSold += quantity;
+            ProductSales sales = productSales.computeIfAbsent(product.getId(), id -> new ProductSales(product.getName()));
+            sales.quantity += quantity;
+            sales.revenueMinor += receipt.getItemTotalMinor(i);
+        }
+    }
+
+    PeriodReport merge(PeriodReport other) {
+        other.buckets.forEach((day, totals) -> buckets.merge(day, totals, Totals::merge));
+        other.productSales.forEach((id, sales) -> productSales.merge(id, sales, ProductSales::merge));
+        other.cashierStats.forEach((id, stats) -> cashierStats.merge(id, stats, CashierStats::merge));
+        return this;
+    }
+
+    // Deep copy, so a report handed to a caller does not change when this one is merged into
+    PeriodReport copy() {
+        PeriodReport copy = new PeriodReport(period);
+        buckets.forEach((day, totals) -> copy.buckets.put(day, new Totals().merge(totals)));
+        productSales.forEach((id, sales) -> copy.productSales.put(id, new ProductSales(sales.productName).merge(sales)));
+        cashierStats.forEach((id, stats) -> copy.cashierStats.put(id, new CashierStats(stats.cashierName).merge(stats)));
+        return copy;
+    }
+
+    public List<Map.Entry<String, ProductSales>> topSellers(int limit) {
+        List<Map.Entry<String, ProductSales>> entries = new ArrayList<>(productSales.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<String, ProductSales> e) -> e.getValue().quantity)
+                               .reversed()
+                               .thenComparing(Map.Entry::getKey));
+        return entries.subList(0, Math.min(limit, entries.size()));
+    }
+
+    // Writes one CSV line per period bucket, oldest first
+    public void writeCsv(Appendable out) throws IOException {
+        out.append("period,receipts,revenue,costOfGoods,grossProfit\n");
+        StringBuilder line = new StringBuilder(64);
+        for (Map.Entry<LocalDate, Totals> entry : buckets.entrySet()) {
+            Totals totals = entry.getValue();
+            line.setLength(0);
+            line.append(entry.getKey()).append(',').append(totals.receipts).append(',');
+            Money.append(line, totals.revenueMinor).append(',');
+            Money.append(line, totals.costOfGoodsMinor).append(',');
+            Money.append(line, totals.getGrossProfitMinor()).append('\n');
+            out.append(line);
+        }
+    }
+
+    // Getters
+    public ReportPeriod getPeriod() { return period; }
+    public SortedMap<LocalDate, Totals> getBuckets() { return Collections.unmodifiableSortedMap(buckets); }
+    public Map<String, ProductSales> getProductSales() { return Collections.unmodifiableMap(productSales); }
+    public Map<String, CashierStats> getCashierStats() { return Collections.unmodifiableMap(cashierStats); }
+
+    public static class Totals {
+        private long receipts;
+        private long revenueMinor;
+        private long costOfGoodsMinor;
+
+        Totals merge(Totals other) {
+            receipts += other.receipts;
+            revenueMinor += other.revenueMinor;
+            costOfGoodsMinor += other.costOfGoodsMinor;
+            return this;
+        }
+
+        public double getGrossProfit() { return Money.toMajor(getGrossProfitMinor()); }
+        public long getGrossProfitMinor() { return revenueMinor - costOfGoodsMinor; }
+
+        // Getters
+        public long getReceipts() { return receipts; }
+        public double getRevenue() { return Money.toMajor(revenueMinor); }
+        public double getCostOfGoods() { return Money.toMajor(costOfGoodsMinor); }
+        public long getRevenueMinor() { return revenueMinor; }
+        public long getCostOfGoodsMinor() { return costOfGoodsMinor; }
+    }
+
+    public static class ProductSales {
+        private final String productName;
+        private long quantity;
+        private long revenueMinor;
+
+        ProductSales(String productName) {
+            this.productName = productName;
+        }
+
+        ProductSales merge(ProductSales other) {
+            quantity += other.quantity;
+            revenueMinor += other.revenueMinor;
+            return this;
+        }
+
+        // Getters
+        public String getProductName() { return productName; }
+        public long getQuantity() { return quantity; }
+        public double getRevenue() { return Money.toMajor(revenueMinor); }
+        public long getRevenueMinor() { return revenueMinor; }
+    }
+
+    public static class CashierStats {
+        private final String cashierName;
+        private long receipts;
+        private long itemsSold;
+        private long revenueMinor;
+
+        CashierStats(String cashierName) {
+            this.cashierName = cashierName;
+        }
+
+        CashierStats merge(CashierStats other) {
+            receipts += other.receipts;
+            itemsSold += other.itemsSold;
+            revenueMinor += other.revenueMinor;
+            return this;
+        }
+
+        // Getters
+        public String getCashierName() { return cashierName; }
+        public long getReceipts() { return receipts; }
+        public long getItemsSold() { return itemsSold; }
+        public double getRevenue() { return Money.toMajor(revenueMinor); }
+        public long getRevenueMinor() { return revenueMinor; }
+    }
+}
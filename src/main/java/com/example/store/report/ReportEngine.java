@@ -0,0 +1,74 @@
+package com.example.store.report;
+
+import com.example.store.model.Receipt;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+
+/**
+ * Aggregates receipt history in parallel: the receipt list is split into
+ * chunks with fork/join, each chunk builds a partial PeriodReport and the
+ * partials are merged on the way back up.
+ */
+public class ReportEngine {
+    static final int DEFAULT_CHUNK_SIZE = 4096;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public ReportEngine() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public ReportEngine(ForkJoinPool pool, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    public PeriodReport aggregate(List<Receipt> receipts, ReportPeriod period) {
+        return aggregate(receipts, period, receipt -> true);
+    }
+
+    public PeriodReport aggregate(List<Receipt> receipts, ReportPeriod period, Predicate<Receipt> filter) {
+        return pool.invoke(new AggregateTask(receipts, period, filter, chunkSize));
+    }
+
+    private static final class AggregateTask extends RecursiveTask<PeriodReport> {
+        private final List<Receipt> receipts;
+        private final ReportPeriod period;
+        private final Predicate<Receipt> filter;
+        private final int chunkSize;
+
+        AggregateTask(List<Receipt> receipts, ReportPeriod period, Predicate<Receipt> filter, int chunkSize) {
+            this.receipts = receipts;
+            this.period = period;
+            this.filter = filter;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected PeriodReport compute() {
+            if (receipts.size() <= chunkSize) {
+                PeriodReport report = new PeriodReport(period);
+                for (Receipt receipt : receipts) {
+                    if (filter.test(receipt)) {
+                        report.add(receipt);
+                    }
+                }
+                return report;
+            }
+            int middle = receipts.size() >>> 1;
+            AggregateTask left = new AggregateTask(receipts.subList(0, middle), period, filter, chunkSize);
+            AggregateTask right = new AggregateTask(receipts.subList(middle, receipts.size()),
+                                                    period, filter, chunkSize);
+            left.fork();
+            PeriodReport rightReport = right.compute();
+            return left.join().merge(rightReport);
+        }
+    }
+}
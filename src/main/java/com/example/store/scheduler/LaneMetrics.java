@@ -0,0 +1,87 @@
+package com.example.store.scheduler;
+
+import com.example.store.util.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for one scheduler lane: tasks admitted, rejected, completed and
+ * failed, the most recent failure, the current and peak queue depth, and
+ * histograms of the time tasks wait in the queue and of their total latency
+ * from submission to completion.
+ */
+public class LaneMetrics {
+    private final String lane;
+    private final BlockingQueue<Runnable> queue;
+    private final LongAdder submitted;
+    private final LongAdder rejected;
+    private final LongAdder completed;
+    private final LongAdder failed;
+    private final AtomicInteger peakQueueDepth;
+    private final LatencyHistogram queueWait;
+    private final LatencyHistogram latency;
+    private volatile RuntimeException lastFailure;
+
+    LaneMetrics(String lane, BlockingQueue<Runnable> queue) {
+        this.lane = lane;
+        this.queue = queue;
+        this.submitted = new LongAdder();
+        this.rejected = new LongAdder();
+        this.completed = new LongAdder();
+        this.failed = new LongAdder();
+        this.peakQueueDepth = new AtomicInteger();
+        this.queueWait = new LatencyHistogram();
+        this.latency = new LatencyHistogram();
+    }
+
+    void onSubmitted() {
+        submitted.increment();
+        peakQueueDepth.accumulateAndGet(queue.size(), Math::max);
+    }
+
+    void onRejected() {
+        rejected.increment();
+    }
+
+    void onStarted(long waitNanos) {
+        queueWait.record(waitNanos);
+    }
+
+    void onFinished(long latencyNanos, RuntimeException failure) {
+        latency.record(latencyNanos);
+        if (failure == null) {
+            completed.increment();
+        } else {
+            lastFailure = failure;
+            failed.increment();
+        }
+    }
+
+    public Duration getQueueWaitPercentile(double fraction) {
+        return queueWait.getPercentile(fraction);
+    }
+
+    public Duration getLatencyPercentile(double fraction) {
+        return latency.getPercentile(fraction);
+    }
+
+    // Getters
+    public String getLane() { return lane; }
+    public int getQueueDepth() { return queue.size(); }
+    public int getPeakQueueDepth() { return peakQueueDepth.get(); }
+    public long getSubmitted() { return submitted.sum(); }
+    public long getRejected() { return rejected.sum(); }
+    public long getCompleted() { return completed.sum(); }
+    public long getFailed() { return failed.sum(); }
+    public RuntimeException getLastFailure() { return lastFailure; }
+
+    @Override
+    public String toString() {
+        return String.format("%s{queued=%d, peak=%d, done=%d, failed=%d, rejected=%d, p50=%s, p99=%s}",
+                             lane, getQueueDepth(), getPeakQueueDepth(), getCompleted(), getFailed(),
+                             getRejected(), getLatencyPercentile(0.50), getLatencyPercentile(0.99));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.store.scheduler;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A fixed pool of threads with its own bounded queue and metrics. Lanes share
+ * no threads or queues, so a backlog in one cannot delay tasks in another.
+ */
+public class SchedulerLane implements Executor {
+    private final String name;
+    private final ThreadPoolExecutor executor;
+    private final LaneMetrics metrics;
+
+    SchedulerLane(String name, int threads, int queueCapacity, RejectedExecutionHandler whenFull) {
+        if (threads <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Lane " + name + " needs at least one thread and queue slot");
+        }
+        this.name = name;
+        ArrayBlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, queue,
+                                               threadFactory(name), whenFull);
+        this.metrics = new LaneMetrics(name, queue);
+    }
+
+    // Throws RejectedExecutionException when the lane's queue is full (unless the lane runs such tasks inline)
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        execute(() -> {
+            try {
+                result.complete(task.call());
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+                throw e instanceof RuntimeException ? (RuntimeException) e : new CompletionException(e);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        long submittedAt = System.nanoTime();
+        try {
+            executor.execute(() -> run(task, submittedAt));
+        } catch (RejectedExecutionException e) {
+            metrics.onRejected();
+            throw e;
+        }
+        metrics.onSubmitted();
+    }
+
+    // A failed task is recorded in the metrics rather than rethrown, so it does not cost the lane a thread.
+    // submit() callers also see the failure through their future.
+    private void run(Runnable task, long submittedAt) {
+        metrics.onStarted(System.nanoTime() - submittedAt);
+        RuntimeException failure = null;
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            failure = e;
+        } finally {
+            metrics.onFinished(System.nanoTime() - submittedAt, failure);
+        }
+    }
+
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    boolean awaitTermination(Duration timeout) throws InterruptedException {
+        return executor.awaitTermination(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private static ThreadFactory threadFactory(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // Getters
+    public String getName() { return name; }
+    public LaneMetrics getMetrics() { return metrics; }
+    public int getQueueDepth() { return metrics.getQueueDepth(); }
+}
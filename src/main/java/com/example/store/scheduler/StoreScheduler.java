@@ -0,0 +1,140 @@
+package com.example.store.scheduler;
+
+import com.example.store.model.CashRegister;
+import com.example.store.model.Product;
+import com.example.store.model.Receipt;
+import com.example.store.model.Store;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Runs store work on three isolated lanes: sale commits, reporting and
+ * export, and receipt persistence. Each lane has its own threads and bounded
+ * queue. Reports are refused while the sales lane has a backlog; that
+ * admission limit, not thread priority, is what keeps a manager's report from
+ * holding up checkout. Receipt files are written on the persistence lane; when
+ * it is full the selling thread writes the file itself, so receipts are never
+ * dropped. A failed write is retried once and then recorded in the lane's
+ * metrics.
+ */
+public class StoreScheduler implements AutoCloseable {
+    public enum Lane {
+        SALES,
+        REPORTING,
+        PERSISTENCE
+    }
+
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+    private static final int PERSISTENCE_ATTEMPTS = 2;
+
+    private final Store store;
+    private final SchedulerLane sales;
+    private final SchedulerLane reporting;
+    private final SchedulerLane persistence;
+    private final Executor persistenceExecutor;
+    private final Executor previousPersistenceExecutor;
+    private volatile int reportAdmissionLimit;
+    private volatile boolean closed;
+
+    public StoreScheduler(Store store) {
+        this(store, Runtime.getRuntime().availableProcessors(), 1, 1024);
+    }
+
+    public StoreScheduler(Store store, int saleThreads, int reportThreads, int queueCapacity) {
+        this.store = store;
+        this.sales = new SchedulerLane("sales", saleThreads, queueCapacity,
+                                       new ThreadPoolExecutor.AbortPolicy());
+        this.reporting = new SchedulerLane("reporting", reportThreads, queueCapacity,
+                                           new ThreadPoolExecutor.AbortPolicy());
+        // Unlike CallerRunsPolicy this also runs the write after shutdown, so no receipt file is lost
+        this.persistence = new SchedulerLane("persistence", 1, queueCapacity, (task, executor) -> task.run());
+        this.reportAdmissionLimit = Math.max(1, queueCapacity / 4);
+        this.persistenceExecutor = task -> persistence.execute(() -> retry(task));
+        this.previousPersistenceExecutor = store.getPersistenceExecutor();
+        store.setPersistenceExecutor(persistenceExecutor);
+    }
+
+    // Throws RejectedExecutionException when the sales queue is full
+    public CompletableFuture<Receipt> submitSale(CashRegister register, Map<Product, Integer> items,
+                                                 String saleId) {
+        checkOpen();
+        Map<Product, Integer> sale = Map.copyOf(items);
+        return sales.submit(() -> store.processSale(register, sale, saleId));
+    }
+
+    // Refused with RejectedExecutionException while sales are backed up or the reporting queue is full
+    public <T> CompletableFuture<T> submitReport(Callable<T> report) {
+        checkOpen();
+        if (sales.getQueueDepth() >= reportAdmissionLimit) {
+            reporting.getMetrics().onRejected();
+            throw new RejectedExecutionException("Sales are backed up; report refused");
+        }
+        return reporting.submit(report);
+    }
+
+    // Reports are refused while at least this many sales are waiting in the queue
+    public void setReportAdmissionLimit(int queuedSales) {
+        if (queuedSales <= 0) {
+            throw new IllegalArgumentException("Admission limit must be positive");
+        }
+        this.reportAdmissionLimit = queuedSales;
+    }
+
+    public SchedulerLane getLane(Lane lane) {
+        return switch (lane) {
+            case SALES -> sales;
+            case REPORTING -> reporting;
+            case PERSISTENCE -> persistence;
+        };
+    }
+
+    public LaneMetrics getMetrics(Lane lane) {
+        return getLane(lane).getMetrics();
+    }
+
+    // Receipt writes usually fail on transient I/O errors, so try again before giving up
+    private static void retry(Runnable task) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                task.run();
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= PERSISTENCE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new RejectedExecutionException("Store scheduler is closed");
+        }
+    }
+
+    // Finishes queued sales first, then their receipt files, then any queued reports
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            sales.shutdown();
+            sales.awaitTermination(SHUTDOWN_TIMEOUT);
+            // Hand receipt writes back to whatever was installed before, unless it was replaced since
+            if (store.getPersistenceExecutor() == persistenceExecutor) {
+                store.setPersistenceExecutor(previousPersistenceExecutor);
+            }
+            persistence.shutdown();
+            reporting.shutdown();
+            persistence.awaitTermination(SHUTDOWN_TIMEOUT);
+            reporting.awaitTermination(SHUTDOWN_TIMEOUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
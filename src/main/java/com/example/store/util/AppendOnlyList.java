@@ -0,0 +1,100 @@
+package com.example.store.util;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Chunked list that only grows. Elements never move once written, so a view
+ * fixed at the current size can be handed out in O(1) and read from any
+ * thread while writers keep appending.
+ */
+public class AppendOnlyList<E> implements Serializable {
+    private static final int CHUNK_SHIFT = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private volatile Object[][] chunks;
+    private volatile int size;
+
+    public AppendOnlyList() {
+        this.chunks = new Object[1][];
+    }
+
+    public synchronized int add(E element) {
+        int index = size;
+        int chunk = index >>> CHUNK_SHIFT;
+        Object[][] current = chunks;
+        if (chunk == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+            chunks = current;
+        }
+        if (current[chunk] == null) {
+            current[chunk] = new Object[CHUNK_SIZE];
+        }
+        current[chunk][index & CHUNK_MASK] = element;
+        size = index + 1;
+        return index;
+    }
+
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return (E) chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public List<E> view() {
+        return new View<>(this, 0, size);
+    }
+
+    public List<E> view(int fromIndex, int toIndex) {
+        int currentSize = size;
+        if (fromIndex < 0 || toIndex > currentSize || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException(
+                String.format("Range [%d, %d) outside of size %d", fromIndex, toIndex, currentSize));
+        }
+        return new View<>(this, fromIndex, toIndex);
+    }
+
+    private static final class View<E> extends AbstractList<E> implements RandomAccess {
+        private final AppendOnlyList<E> source;
+        private final int offset;
+        private final int size;
+
+        View(AppendOnlyList<E> source, int offset, int toIndex) {
+            this.source = source;
+            this.offset = offset;
+            this.size = toIndex - offset;
+        }
+
+        @Override
+        public E get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+            }
+            return source.get(offset + index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public List<E> subList(int fromIndex, int toIndex) {
+            if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+                throw new IndexOutOfBoundsException(
+                    String.format("Range [%d, %d) outside of size %d", fromIndex, toIndex, size));
+            }
+            return new View<>(source, offset + fromIndex, offset + toIndex);
+        }
+    }
+}
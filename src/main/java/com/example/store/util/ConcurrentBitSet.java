@@ -0,0 +1,114 @@
+package com.example.store.util;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Growable bit set that can be read and updated from any thread. Bits live in
+ * fixed-size chunks of atomic words, so setting or clearing a bit is a single
+ * CAS and growing never moves existing bits.
+ */
+public class ConcurrentBitSet implements Serializable {
+    private static final int WORDS_PER_CHUNK = 64;
+    private static final int BITS_PER_CHUNK = WORDS_PER_CHUNK * Long.SIZE;
+
+    private volatile AtomicLongArray[] chunks;
+
+    public ConcurrentBitSet() {
+        this.chunks = new AtomicLongArray[0];
+    }
+
+    public void set(int bit) {
+        AtomicLongArray chunk = chunkFor(bit);
+        int word = wordIndex(bit);
+        long mask = 1L << bit;
+        long current;
+        do {
+            current = chunk.get(word);
+        } while ((current & mask) == 0 && !chunk.compareAndSet(word, current, current | mask));
+    }
+
+    public void clear(int bit) {
+        AtomicLongArray[] current = chunks;
+        int chunkIndex = bit / BITS_PER_CHUNK;
+        if (chunkIndex >= current.length) {
+            return;
+        }
+        AtomicLongArray chunk = current[chunkIndex];
+        int word = wordIndex(bit);
+        long mask = 1L << bit;
+        long value;
+        do {
+            value = chunk.get(word);
+        } while ((value & mask) != 0 && !chunk.compareAndSet(word, value, value & ~mask));
+    }
+
+    public boolean get(int bit) {
+        AtomicLongArray[] current = chunks;
+        int chunkIndex = bit / BITS_PER_CHUNK;
+        return chunkIndex < current.length && (current[chunkIndex].get(wordIndex(bit)) & (1L << bit)) != 0;
+    }
+
+    // Index of the first set bit at or after fromIndex, or -1
+    public int nextSetBit(int fromIndex) {
+        AtomicLongArray[] current = chunks;
+        int chunkIndex = fromIndex / BITS_PER_CHUNK;
+        if (chunkIndex >= current.length) {
+            return -1;
+        }
+        int word = wordIndex(fromIndex);
+        long bits = current[chunkIndex].get(word) & (-1L << fromIndex);
+        while (true) {
+            if (bits != 0) {
+                return chunkIndex * BITS_PER_CHUNK + word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+            }
+            if (++word == WORDS_PER_CHUNK) {
+                word = 0;
+                if (++chunkIndex == current.length) {
+                    return -1;
+                }
+            }
+            bits = current[chunkIndex].get(word);
+        }
+    }
+
+    public int cardinality() {
+        int count = 0;
+        for (AtomicLongArray chunk : chunks) {
+            for (int i = 0; i < WORDS_PER_CHUNK; i++) {
+                count += Long.bitCount(chunk.get(i));
+            }
+        }
+        return count;
+    }
+
+    private static int wordIndex(int bit) {
+        return (bit % BITS_PER_CHUNK) / Long.SIZE;
+    }
+
+    private AtomicLongArray chunkFor(int bit) {
+        if (bit < 0) {
+            throw new IndexOutOfBoundsException("Negative bit index: " + bit);
+        }
+        int chunkIndex = bit / BITS_PER_CHUNK;
+        AtomicLongArray[] current = chunks;
+        if (chunkIndex < current.length) {
+            return current[chunkIndex];
+        }
+        return grow(chunkIndex);
+    }
+
+    private synchronized AtomicLongArray grow(int chunkIndex) {
+        AtomicLongArray[] current = chunks;
+        if (chunkIndex >= current.length) {
+            AtomicLongArray[] grown = Arrays.copyOf(current, chunkIndex + 1);
+            for (int i = current.length; i < grown.length; i++) {
+                grown[i] = new AtomicLongArray(WORDS_PER_CHUNK);
+            }
+            chunks = grown;
+            current = grown;
+        }
+        return current[chunkIndex];
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.store.util;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of durations in nanoseconds. Each power of two is split
+ * into four buckets, so a percentile is reported as the upper edge of its
+ * bucket and is at most 25% above the true value.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKETS = 4;
+    private static final int BUCKETS = SUB_BUCKETS * 62;
+
+    private final AtomicLongArray counts;
+
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(BUCKETS);
+    }
+
+    public void record(long nanos) {
+        counts.incrementAndGet(bucketOf(Math.max(0, nanos)));
+    }
+
+    public long getCount() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    // The smallest bucket edge at or above the given fraction (0..1] of recorded values; zero when empty
+    public Duration getPercentile(double fraction) {
+        if (fraction <= 0 || fraction > 1) {
+            throw new IllegalArgumentException("Percentile must be in (0, 1]");
+        }
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return Duration.ZERO;
+        }
+        long rank = (long) Math.ceil(fraction * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Duration.ofNanos(upperEdge(i));
+            }
+        }
+        return Duration.ofNanos(upperEdge(BUCKETS - 1));
+    }
+
+    // Values below 4 get their own bucket; above that, four buckets per power of two
+    private static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        int log2 = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (log2 - 2)) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS * (log2 - 1) + sub;
+    }
+
+    private static long upperEdge(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int log2 = bucket / SUB_BUCKETS + 1;
+        int sub = bucket % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub + 1) << (log2 - 2)) - 1;
+    }
+}
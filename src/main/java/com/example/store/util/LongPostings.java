@@ -0,0 +1,56 @@
+package com.example.store.util;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Growable, ascending list of longs for a single writer. Readers see a prefix
+ * of the values without locking: the array is published before the size.
+ */
+public class LongPostings implements Serializable {
+    private volatile long[] values;
+    private volatile int size;
+
+    public LongPostings() {
+        this.values = new long[8];
+    }
+
+    public synchronized void add(long value) {
+        long[] current = values;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+            values = current;
+        }
+        current[size] = value;
+        size = size + 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long get(int index) {
+        return values[index];
+    }
+
+    public long last() {
+        int currentSize = size;
+        return currentSize == 0 ? Long.MIN_VALUE : values[currentSize - 1];
+    }
+
+    // Index of the first value >= target within [fromIndex, toIndex)
+    public int lowerBound(long target, int fromIndex, int toIndex) {
+        long[] current = values;
+        int low = fromIndex;
+        int high = toIndex;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (current[mid] < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
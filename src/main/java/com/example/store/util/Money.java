@@ -0,0 +1,44 @@
+package com.example.store.util;
+
+/**
+ * Money as a long count of minor units (stotinki). Sums of minor units are
+ * exact, unlike sums of doubles, so amounts are rounded once when a price is
+ * set and never again. The double forms are kept for the existing API.
+ */
+public final class Money {
+    public static final int MINOR_PER_MAJOR = 100;
+
+    private Money() {
+    }
+
+    public static long toMinor(double amount) {
+        return Math.round(amount * MINOR_PER_MAJOR);
+    }
+
+    public static double toMajor(long minor) {
+        return (double) minor / MINOR_PER_MAJOR;
+    }
+
+    // Accepts plain decimal strings such as "3.9", "3.90" or "-0.05"
+    public static long parse(String amount) {
+        return toMinor(Double.parseDouble(amount));
+    }
+
+    // Formats with exactly two decimals and no grouping, e.g. 1234 -> "12.34"
+    public static String format(long minor) {
+        return append(new StringBuilder(12), minor).toString();
+    }
+
+    public static StringBuilder append(StringBuilder sb, long minor) {
+        long abs = Math.abs(minor);
+        if (minor < 0) {
+            sb.append('-');
+        }
+        long fraction = abs % MINOR_PER_MAJOR;
+        sb.append(abs / MINOR_PER_MAJOR).append('.');
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        return sb.append(fraction);
+    }
+}
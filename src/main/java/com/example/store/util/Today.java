@@ -0,0 +1,47 @@
+package com.example.store.util;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * The current date in the system time zone, recomputed only when the clock
+ * passes midnight. Reading it costs one currentTimeMillis() call instead of
+ * the allocations of LocalDate.now().
+ */
+public final class Today {
+    private static volatile Day current = compute(System.currentTimeMillis());
+
+    private Today() {
+    }
+
+    public static LocalDate get() {
+        long now = System.currentTimeMillis();
+        Day day = current;
+        if (now >= day.endMillis || now < day.startMillis) {
+            day = compute(now);
+            current = day;
+        }
+        return day.date;
+    }
+
+    private static Day compute(long now) {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate date = Instant.ofEpochMilli(now).atZone(zone).toLocalDate();
+        long start = date.atStartOfDay(zone).toInstant().toEpochMilli();
+        long end = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        return new Day(date, start, end);
+    }
+
+    private static final class Day {
+        private final LocalDate date;
+        private final long startMillis;
+        private final long endMillis;
+
+        Day(LocalDate date, long startMillis, long endMillis) {
+            this.date = date;
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+        }
+    }
+}
@@ -4,15 +4,20 @@ import com.example.store.model.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.*;
 import static org.junit.jupiter.api.Assertions.*;
 
 class MainTest {
+    @TempDir
+    Path dir;
+
     private Store store;
     private Cashier cashier;
     private CashRegister register;
@@ -27,6 +32,7 @@ class MainTest {
 
         // Създаване на магазин с тестови данни
         store = new Store("Test Store", 20.0, 30.0, 7, 15.0);
+        store.setReceiptDirectory(dir);
         
         // Добавяне на продукти
         FoodProduct milk = new FoodProduct("F001", "Мляко", 2.50, 
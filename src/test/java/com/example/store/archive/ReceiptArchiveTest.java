@@ -0,0 +1,128 @@
+package com.example.store.archive;
+
+import com.example.store.model.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+class ReceiptArchiveTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRoundTripAcrossBlocks() throws Exception {
+        List<ReceiptRecord> records = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2024, 3, 1, 8, 0);
+        for (int i = 1; i <= 250; i++) {
+            LocalDateTime timestamp = start.plusSeconds(i * 37L).plusNanos(i * 1_001L);
+            records.add(new ReceiptRecord(i, timestamp, "C00" + (i % 3), "Касиер " + (i % 3),
+                i % 5 == 0 ? null : "R00" + (i % 2),
+                3.00 * (i % 4 + 1) + 3.90,
+                List.of(new ReceiptRecord.Item("F001", "Мляко", i % 4 + 1, 3.00, 3.00 * (i % 4 + 1)),
+                        new ReceiptRecord.Item("NF001", "Сапун", 1, 3.90, 3.90))));
+        }
+
+        Path archive = dir.resolve("test.rca");
+        try (ReceiptArchiveWriter writer = new ReceiptArchiveWriter(archive, 100)) {
+            for (ReceiptRecord record : records) {
+                writer.append(record);
+            }
+        }
+
+        List<ReceiptRecord> read = new ArrayList<>();
+        assertEquals(250, ReceiptArchiveReader.scan(List.of(archive), read::add));
+
+        for (int i = 0; i < records.size(); i++) {
+            ReceiptRecord expected = records.get(i);
+            ReceiptRecord actual = read.get(i);
+            assertEquals(expected.getReceiptNumber(), actual.getReceiptNumber());
+            assertEquals(expected.getTimestamp(), actual.getTimestamp());
+            assertEquals(expected.getCashierId(), actual.getCashierId());
+            assertEquals(expected.getCashierName(), actual.getCashierName());
+            assertEquals(expected.getRegisterId(), actual.getRegisterId());
+            assertEquals(expected.getTotalAmount(), actual.getTotalAmount(), 0.001);
+            assertEquals(2, actual.getItems().size());
+            assertEquals("Мляко", actual.getItems().get(0).getProductName());
+            assertEquals(expected.getItems().get(0).getQuantity(), actual.getItems().get(0).getQuantity());
+            assertEquals(3.90, actual.getItems().get(1).getUnitPrice(), 0.001);
+        }
+
+        long textSize = records.stream().mapToLong(r -> r.encode().length()).sum();
+        assertTrue(Files.size(archive) * 5 < textSize, "archive should be much smaller than text");
+    }
+
+    @Test
+    void testStoreReceiptsRoundTripExactly() throws Exception {
+        Receipt.resetReceiptNumber();
+        Store store = new Store("Test Store", 20.0, 30.0, 7, 15.0);
+        store.setReceiptDirectory(dir);
+        FoodProduct milk = new FoodProduct("F001", "Мляко", 2.50, LocalDate.now().plusDays(30), 100);
+        NonFoodProduct soap = new NonFoodProduct("NF001", "Сапун", 3.00, LocalDate.now().plusMonths(6), 100);
+        Cashier cashier = new Cashier("C001", "Иван Иванов", 1500.0);
+        CashRegister register = new CashRegister("R001");
+        store.addProduct(milk);
+        store.addProduct(soap);
+        store.addCashier(cashier);
+        store.addCashRegister(register);
+        cashier.assignToRegister(register);
+        store.addPromotion(new MultiBuyPromotion("P1", "2 за 1: мляко", "F001", 2, 1));
+        for (int i = 1; i <= 5; i++) {
+            store.processSale(register, Map.of(milk, i, soap, 1));
+        }
+
+        List<ReceiptRecord> expected = store.getAllReceipts().stream().map(ReceiptRecord::from).toList();
+        Path archive = dir.resolve("store.rca");
+        try (ReceiptArchiveWriter writer = new ReceiptArchiveWriter(archive, 2)) {
+            for (ReceiptRecord record : expected) {
+                writer.append(record);
+            }
+        }
+        List<ReceiptRecord> read = new ArrayList<>();
+        ReceiptArchiveReader.scan(List.of(archive), read::add);
+
+        // The text encoding covers every field, so equal lines mean an exact round trip
+        assertEquals(expected.stream().map(ReceiptRecord::encode).toList(),
+                     read.stream().map(ReceiptRecord::encode).toList());
+        assertEquals(expected.get(4).getTimestamp(), read.get(4).getTimestamp());
+        assertTrue(read.get(0).getDiscounts().isEmpty());
+        assertEquals(1, read.get(4).getDiscounts().size());
+        assertEquals("2 за 1: мляко", read.get(4).getDiscounts().get(0).getDescription());
+        assertEquals(600, read.get(4).getDiscounts().get(0).getAmountMinor());
+    }
+
+    @Test
+    void testDailyCompactionRemovesTextReceipts() throws Exception {
+        Receipt.resetReceiptNumber();
+        Store store = new Store("Test Store", 20.0, 30.0, 7, 15.0);
+        store.setReceiptDirectory(dir);
+        FoodProduct milk = new FoodProduct("F001", "Мляко", 2.50, LocalDate.now().plusDays(30), 100);
+        Cashier cashier = new Cashier("C001", "Иван Иванов", 1500.0);
+        CashRegister register = new CashRegister("R001");
+        store.addProduct(milk);
+        store.addCashier(cashier);
+        store.addCashRegister(register);
+        cashier.assignToRegister(register);
+        for (int i = 0; i < 3; i++) {
+            store.processSale(register, Map.of(milk, 1));
+        }
+        assertTrue(Files.exists(dir.resolve("receipt_1.txt")));
+
+        DailyReceiptCompactor compactor = new DailyReceiptCompactor(dir.resolve("archive"));
+        Path archive = compactor.compact(store, LocalDate.now(), dir);
+
+        assertFalse(Files.exists(dir.resolve("receipt_1.txt")));
+        assertEquals(List.of(archive), compactor.archivesBetween(LocalDate.now().minusDays(7), LocalDate.now()));
+        List<ReceiptRecord> read = new ArrayList<>();
+        ReceiptArchiveReader.scan(List.of(archive), read::add);
+        assertEquals(List.of(1, 2, 3), read.stream().map(ReceiptRecord::getReceiptNumber).toList());
+        assertEquals("R001", read.get(0).getRegisterId());
+    }
+}
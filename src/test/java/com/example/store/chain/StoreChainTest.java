@@ -0,0 +1,80 @@
+package com.example.store.chain;
+
+import com.example.store.model.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+class StoreChainTest {
+    @TempDir
+    Path dir;
+
+    private StoreChain chain;
+
+    @BeforeEach
+    void setUp() {
+        Receipt.resetReceiptNumber();
+        chain = new StoreChain(2);
+        for (int i = 1; i <= 3; i++) {
+            Store store = new Store("Branch " + i, 20.0, 30.0, 7, 15.0);
+            store.setReceiptDirectory(dir);
+            store.addProduct(new FoodProduct("F001", "Мляко", 2.50, LocalDate.now().plusDays(30), 1000));
+            store.addProduct(new NonFoodProduct("NF001", "Сапун", 3.00, LocalDate.now().plusMonths(6), 1000));
+            store.addProduct(new FoodProduct("F002", "Изтекло мляко", 2.50, LocalDate.now().minusDays(1), 10));
+            Cashier cashier = new Cashier("C00" + i, "Касиер " + i, 1500.0);
+            CashRegister register = new CashRegister("R00" + i);
+            store.addCashier(cashier);
+            store.addCashRegister(register);
+            cashier.assignToRegister(register);
+            chain.addStore(store);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        chain.close();
+    }
+
+    @Test
+    void testParallelSalesAndAggregatedReport() {
+        List<CompletableFuture<Receipt>> sales = new ArrayList<>();
+        for (Store store : chain.getStores()) {
+            CashRegister register = store.getRegisters().get(0);
+            Product milk = store.findProductById("F001");
+            Product soap = store.findProductById("NF001");
+            for (int i = 0; i < 50; i++) {
+                sales.add(chain.submitSale(store.getName(), register, Map.of(milk, 2, soap, 1)));
+            }
+        }
+        CompletableFuture.allOf(sales.toArray(new CompletableFuture<?>[0])).join();
+
+        ChainReport report = chain.report().join();
+
+        double expectedRevenue = chain.getStores().stream().mapToDouble(Store::getTotalRevenue).sum();
+        double expectedProfit = chain.getStores().stream().mapToDouble(Store::calculateProfit).sum();
+        assertEquals(expectedRevenue, report.getTotalRevenue(), 0.001);
+        assertEquals(expectedProfit, report.calculateProfit(), 0.001);
+        assertEquals(150, report.getReceiptsCount());
+        assertEquals(300L, report.getQuantitySoldByProduct().get("F001"));
+        assertEquals(150L, report.getQuantitySoldByProduct().get("NF001"));
+        assertEquals(List.of("F001", "NF001"), report.getTopSellingProductIds(5));
+        assertEquals(3, report.getStoreSnapshots().size());
+        assertEquals(1, report.getExpiredProducts().get("Branch 2").size());
+    }
+
+    @Test
+    void testDuplicateStoreRejected() {
+        Store duplicate = new Store("Branch 1", 20.0, 30.0, 7, 15.0);
+        assertThrows(IllegalArgumentException.class, () -> chain.addStore(duplicate));
+        assertThrows(IllegalArgumentException.class, () -> chain.getStore("Branch 9"));
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.store.export;
+
+import com.example.store.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+class CatalogExporterTest {
+    private Store store;
+
+    @BeforeEach
+    void setUp() {
+        store = new Store("Test Store", 20.0, 30.0, 7, 15.0);
+        store.addProduct(new FoodProduct("F001", "Мляко", 2.50, LocalDate.now().plusDays(30), 100));
+        store.addProduct(new NonFoodProduct("NF001", "Сапун, \"луксозен\"", 3.00, LocalDate.now().plusMonths(6), 200));
+        store.addProduct(new FoodProduct("F002", "Изтекло мляко", 2.50, LocalDate.now().minusDays(1), 50));
+        store.addProduct(new FoodProduct("F003", "Хляб", 1.20, LocalDate.now().plusDays(30), 0));
+    }
+
+    @Test
+    void testCsvExportSkipsExpiredAndOutOfStock() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = new CatalogExporter(store, CatalogExporter.Format.CSV, 16)
+            .export(Channels.newChannel(out));
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(2, count);
+        assertEquals(3, lines.size());
+        assertEquals("id,name,category,price,quantity,expirationDate", lines.get(0));
+        assertTrue(lines.get(1).startsWith("F001,Мляко,FOOD,3.00,100,"));
+        assertTrue(lines.get(2).startsWith("NF001,\"Сапун, \"\"луксозен\"\"\",NON_FOOD,3.90,200,"));
+    }
+
+    @Test
+    void testExportCountsOnlySellableUnits() throws Exception {
+        store.receiveLot(store.findProductById("F001"), new ProductLot(2.50, LocalDate.now().minusDays(2), 30));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new CatalogExporter(store, CatalogExporter.Format.CSV).export(Channels.newChannel(out));
+
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("\nF001,Мляко,FOOD,3.00,100,"));
+    }
+
+    @Test
+    void testCsvQuotesCarriageReturns() throws Exception {
+        store.addProduct(new NonFoodProduct("NF002", "Кърпа\rголяма", 2.00, LocalDate.now().plusMonths(6), 10));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new CatalogExporter(store, CatalogExporter.Format.CSV).export(Channels.newChannel(out));
+
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("\nNF002,\"Кърпа\rголяма\",NON_FOOD,2.60,10,"));
+    }
+
+    @Test
+    void testJsonExportToFile(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("catalog.json");
+        long count = new CatalogExporter(store, CatalogExporter.Format.JSON).export(file);
+
+        String json = Files.readString(file, StandardCharsets.UTF_8);
+        assertEquals(2, count);
+        assertTrue(json.startsWith("["));
+        assertTrue(json.trim().endsWith("]"));
+        assertTrue(json.contains("{\"id\":\"F001\",\"name\":\"Мляко\",\"category\":\"FOOD\",\"price\":3.00,\"quantity\":100"));
+        assertTrue(json.contains("\"name\":\"Сапун, \\\"луксозен\\\"\""));
+        assertFalse(json.contains("F002"));
+    }
+
+    @Test
+    void testExportWithFilter() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = new CatalogExporter(store, CatalogExporter.Format.CSV)
+            .export(Channels.newChannel(out), p -> p.getCategory() == Product.ProductCategory.NON_FOOD);
+
+        assertEquals(1, count);
+        assertFalse(out.toString(StandardCharsets.UTF_8).contains("\nF001,"));
+    }
+}
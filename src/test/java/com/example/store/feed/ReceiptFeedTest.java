@@ -0,0 +1,160 @@
+package com.example.store.feed;
+
+import com.example.store.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class ReceiptFeedTest {
+    @TempDir
+    Path dir;
+
+    private Store store;
+    private FoodProduct milk;
+    private CashRegister register;
+
+    @BeforeEach
+    void setUp() {
+        Receipt.resetReceiptNumber();
+        store = new Store("Test Store", 20.0, 30.0, 7, 15.0);
+        store.setReceiptDirectory(dir);
+        milk = new FoodProduct("F001", "Мляко", 2.50, LocalDate.now().plusDays(30), 1000);
+        Cashier cashier = new Cashier("C001", "Иван Иванов", 1500.0);
+        register = new CashRegister("R001");
+        store.addProduct(milk);
+        store.addCashier(cashier);
+        store.addCashRegister(register);
+        cashier.assignToRegister(register);
+    }
+
+    private void sell(int count) {
+        for (int i = 0; i < count; i++) {
+            Map<Product, Integer> items = new HashMap<>();
+            items.put(milk, 1);
+            store.processSale(register, items);
+        }
+    }
+
+    @Test
+    void testConsumerReadsBatchesInOrder() throws Exception {
+        try (ReceiptFeed feed = new ReceiptFeed(store, dir.resolve("receipts.feed"))) {
+            sell(5);
+
+            assertTrue(feed.awaitRecordsAfter(4, Duration.ofSeconds(5)));
+
+            ReceiptFeedConsumer consumer = new ReceiptFeedConsumer(feed, dir.resolve("bi.offset"));
+            List<ReceiptRecord> first = consumer.poll(3);
+            List<ReceiptRecord> second = consumer.poll(10);
+
+            assertEquals(3, first.size());
+            assertEquals(1, first.get(0).getReceiptNumber());
+            assertEquals("R001", first.get(0).getRegisterId());
+            assertEquals("Мляко", first.get(0).getItems().get(0).getProductName());
+            assertEquals(List.of(4, 5), second.stream().map(ReceiptRecord::getReceiptNumber).toList());
+            assertTrue(consumer.poll(10).isEmpty());
+        }
+    }
+
+    @Test
+    void testConsumerResumesFromCommittedOffsetAfterRestart() throws Exception {
+        Path log = dir.resolve("receipts.feed");
+        Path offset = dir.resolve("accounting.offset");
+
+        try (ReceiptFeed feed = new ReceiptFeed(store, log)) {
+            sell(600);
+            assertTrue(feed.awaitRecordsAfter(599, Duration.ofSeconds(5)));
+
+            ReceiptFeedConsumer consumer = new ReceiptFeedConsumer(feed, offset);
+            assertEquals(500, consumer.poll(500).size());
+            consumer.commit();
+            consumer.poll(50); // polled but never committed
+        }
+
+        Receipt.resetReceiptNumber();
+        try (ReceiptFeed reopened = new ReceiptFeed(store, log)) {
+            assertEquals(600, reopened.getLastNumber());
+            ReceiptFeedConsumer consumer = new ReceiptFeedConsumer(reopened, offset);
+            assertEquals(500, consumer.getCommittedOffset());
+
+            List<ReceiptRecord> rest = consumer.poll(1000);
+            assertEquals(100, rest.size());
+            assertEquals(501, rest.get(0).getReceiptNumber());
+
+            // Numbering continues after the feed so offsets stay ordered
+            sell(1);
+            List<ReceiptRecord> next = consumer.poll(10, Duration.ofSeconds(5));
+            assertEquals(601, next.get(0).getReceiptNumber());
+        }
+    }
+
+    @Test
+    void testReopenedFeedCatchesUpOnSalesMadeWhileClosed() throws Exception {
+        Path log = dir.resolve("receipts.feed");
+        ReceiptFeed feed = new ReceiptFeed(store, log);
+        sell(2);
+        assertTrue(feed.awaitRecordsAfter(1, Duration.ofSeconds(5)));
+        feed.close();
+
+        assertDoesNotThrow(() -> sell(3));
+        assertEquals(2, feed.getLastNumber());
+
+        try (ReceiptFeed reopened = new ReceiptFeed(store, log)) {
+            assertTrue(reopened.awaitRecordsAfter(4, Duration.ofSeconds(5)));
+            assertEquals(List.of(1, 2, 3, 4, 5),
+                         reopened.read(0, 10).stream().map(ReceiptRecord::getReceiptNumber).toList());
+            assertTrue(reopened.isHealthy());
+            assertEquals(0, reopened.getPendingCount());
+        }
+    }
+
+    @Test
+    void testBurstLargerThanABatchIsWrittenInFull() throws Exception {
+        try (ReceiptFeed feed = new ReceiptFeed(store, dir.resolve("receipts.feed"))) {
+            store.restockProduct(milk, 2000);
+            sell(3000);
+            assertTrue(feed.awaitRecordsAfter(2999, Duration.ofSeconds(10)));
+            assertEquals(3000, feed.read(0, 5000).size());
+        }
+    }
+
+    @Test
+    void testRecordEncodingRoundTrip() {
+        ReceiptRecord record = new ReceiptRecord(7, java.time.LocalDateTime.of(2024, 5, 1, 14, 30),
+            "C002", "Мария\tПетрова", null, 6.0,
+            List.of(new ReceiptRecord.Item("F|1", "Хляб; бял", 2, 3.0, 6.0)));
+
+        ReceiptRecord decoded = ReceiptRecord.decode(record.encode());
+
+        assertEquals(7, decoded.getReceiptNumber());
+        assertEquals("Мария\tПетрова", decoded.getCashierName());
+        assertNull(decoded.getRegisterId());
+        assertEquals("F|1", decoded.getItems().get(0).getProductId());
+        assertEquals("Хляб; бял", decoded.getItems().get(0).getProductName());
+        assertEquals(6.0, decoded.getTotalAmount());
+        assertTrue(decoded.getDiscounts().isEmpty());
+    }
+
+    @Test
+    void testDiscountsSurviveEncodingAndLinesWithoutThemAreRejected() {
+        ReceiptRecord record = ReceiptRecord.ofMinorUnits(8, java.time.LocalDateTime.of(2024, 5, 1, 14, 30),
+            "C001", "Иван", "R001", 300,
+            List.of(ReceiptRecord.Item.ofMinorUnits("F001", "Мляко", 2, 300, 600)),
+            List.of(new Receipt.Discount("P1", "2 за 1; мляко", 300)));
+
+        ReceiptRecord decoded = ReceiptRecord.decode(record.encode());
+        assertEquals("P1", decoded.getDiscounts().get(0).getPromotionId());
+        assertEquals("2 за 1; мляко", decoded.getDiscounts().get(0).getDescription());
+        assertEquals(300, decoded.getDiscounts().get(0).getAmountMinor());
+
+        String withoutDiscounts = record.encode().substring(0, record.encode().lastIndexOf('\t'));
+        assertThrows(IllegalArgumentException.class, () -> ReceiptRecord.decode(withoutDiscounts));
+    }
+}
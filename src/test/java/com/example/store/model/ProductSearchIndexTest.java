@@ -0,0 +1,56 @@
+package com.example.store.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+class ProductSearchIndexTest {
+    private Store store;
+    private FoodProduct milk;
+    private FoodProduct yogurt;
+    private NonFoodProduct soap;
+
+    @BeforeEach
+    void setUp() {
+        store = new Store("Test Store", 20.0, 30.0, 7, 15.0);
+        milk = new FoodProduct("F001", "Мляко", 2.50, LocalDate.now().plusDays(5), 100);
+        yogurt = new FoodProduct("F002", "Млечен десерт", 1.80, LocalDate.now().plusDays(5), 40);
+        soap = new NonFoodProduct("NF001", "Сапун", 3.00, LocalDate.now().plusMonths(6), 200);
+        store.addProduct(milk);
+        store.addProduct(yogurt);
+        store.addProduct(soap);
+    }
+
+    @Test
+    void testExactIdLookup() {
+        assertSame(milk, store.findProductById("F001"));
+        assertNull(store.findProductById("F999"));
+    }
+
+    @Test
+    void testIdPrefixIsCaseInsensitive() {
+        assertEquals(List.of(milk, yogurt), store.searchProducts("f0", 10));
+        assertEquals(List.of(soap), store.searchProducts("nf", 10));
+    }
+
+    @Test
+    void testCyrillicNamePrefix() {
+        assertEquals(List.of(milk), store.searchProducts("МЛЯ", 10));
+        assertEquals(List.of(yogurt, milk), store.searchProducts("мл", 10));
+        assertTrue(store.searchProducts("хля", 10).isEmpty());
+    }
+
+    @Test
+    void testLimitAndNewProducts() {
+        assertEquals(1, store.searchProducts("мл", 1).size());
+
+        FoodProduct bread = new FoodProduct("F003", "Хляб", 1.20, LocalDate.now().plusDays(3), 50);
+        store.addProduct(bread);
+
+        assertEquals(List.of(bread), store.searchProducts("хля", 10));
+        assertEquals(3, store.searchProducts("F", 10).size());
+    }
+}
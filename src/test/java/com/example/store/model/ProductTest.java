@@ -5,6 +5,7 @@ import org.junit.jupiter.api.BeforeEach;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.time.LocalDate;
+import java.util.List;
 
 class ProductTest {
     private FoodProduct milk;
@@ -83,4 +84,58 @@ class ProductTest {
         assertThrows(IllegalStateException.class, () -> 
             expiredMilk.calculateSellingPrice(20.0, 2, 15.0));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testLotsAreSoldFirstExpiryFirstOut() {
+        milk.addLot(new ProductLot(2.80, nextWeek, 50));
+        milk.addLot(new ProductLot(2.60, LocalDate.now().plusDays(3), 30));
+        assertEquals(180, milk.getQuantity());
+
+        milk.decreaseQuantity(120);
+
+        assertEquals(60, milk.getQuantity());
+        List<ProductLot> lots = milk.getLots();
+        assertEquals(2, lots.size());
+        assertEquals(10, lots.get(0).getQuantity());
+        assertEquals(LocalDate.now().plusDays(3), milk.getExpirationDate());
+        assertEquals(2.60, milk.getDeliveryPrice());
+        assertEquals(nextWeek, lots.get(1).getExpirationDate());
+    }
+
+    @Test
+    void testPricingPerLot() {
+        ProductLot freshLot = new ProductLot(3.00, nextWeek, 10);
+        milk.addLot(freshLot);
+
+        // The lot sold next expires tomorrow and is discounted; the fresh lot is not
+        assertEquals(2.50 * 1.20 * 0.85, milk.calculateSellingPrice(20.0, 2, 15.0), 0.001);
+        assertEquals(3.00 * 1.20, milk.calculateSellingPrice(freshLot, 20.0, 2, 15.0), 0.001);
+
+        milk.decreaseQuantity(100);
+        assertEquals(3.00 * 1.20, milk.calculateSellingPrice(20.0, 2, 15.0), 0.001);
+    }
+
+    @Test
+    void testDiscardExpiredLots() {
+        FoodProduct yogurt = new FoodProduct("F003", "Yogurt", 1.00, lastWeek, 40);
+        yogurt.addLot(new ProductLot(1.10, nextWeek, 25));
+        // The expired lot does not block the fresh one before it is written off
+        assertFalse(yogurt.isExpired());
+        assertEquals(25, yogurt.getSellableQuantity());
+        assertEquals(nextWeek, yogurt.getExpirationDate());
+        yogurt.decreaseQuantity(5);
+        assertEquals(60, yogurt.getQuantity());
+        assertThrows(Product.InsufficientStockException.class, () -> yogurt.decreaseQuantity(21));
+
+        assertEquals(40, yogurt.discardExpiredLots(LocalDate.now()));
+
+        assertFalse(yogurt.isExpired());
+        assertEquals(20, yogurt.getQuantity());
+        assertEquals(1, yogurt.getLots().size());
+
+        // The last lot stays as an empty lot once it expires, keeping its date
+        assertEquals(20, yogurt.discardExpiredLots(nextWeek.plusDays(1)));
+        assertEquals(0, yogurt.getQuantity());
+        assertEquals(nextWeek, yogurt.getExpirationDate());
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.store.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class PromotionEngineTest {
+    @TempDir
+    Path dir;
+
+    private Store store;
+    private FoodProduct milk;
+    private FoodProduct bread;
+    private NonFoodProduct soap;
+    private CashRegister register;
+
+    @BeforeEach
+    void setUp() {
+        Receipt.resetReceiptNumber();
+        store = new Store("Test Store", 20.0, 30.0, 7, 15.0);
+        store.setReceiptDirectory(dir);
+        // Selling prices: milk 3.00, bread 1.20, soap 3.90
+        milk = new FoodProduct("F001", "Milk", 2.50, LocalDate.now().plusDays(30), 100);
+        bread = new FoodProduct("F002", "Bread", 1.00, LocalDate.now().plusDays(30), 100);
+        soap = new NonFoodProduct("NF001", "Soap", 3.00, LocalDate.now().plusMonths(6), 100);
+        store.addProduct(milk);
+        store.addProduct(bread);
+        store.addProduct(soap);
+        Cashier cashier = new Cashier("C001", "John Doe", 1500.0);
+        register = new CashRegister("R001");
+        store.addCashier(cashier);
+        store.addCashRegister(register);
+        cashier.assignToRegister(register);
+    }
+
+    private static Map<Product, Integer> basket(Object... productsAndQuantities) {
+        Map<Product, Integer> items = new LinkedHashMap<>();
+        for (int i = 0; i < productsAndQuantities.length; i += 2) {
+            items.put((Product) productsAndQuantities[i], (Integer) productsAndQuantities[i + 1]);
+        }
+        return items;
+    }
+
+    @Test
+    void testMultiBuy() {
+        store.addPromotion(new MultiBuyPromotion("P1", "3 за 2 мляко", "F001", 3, 2));
+
+        Receipt receipt = store.processSale(register, basket(milk, 7));
+
+        assertEquals(1, receipt.getDiscounts().size());
+        assertEquals(6.00, receipt.getDiscounts().get(0).getAmount(), 0.001);
+        assertEquals(7 * 3.00 - 6.00, receipt.getTotalAmount(), 0.001);
+        assertEquals(receipt.getTotalAmount(), store.getTotalRevenue(), 0.001);
+        assertTrue(receipt.generateReceiptText().contains("Отстъпка: 3 за 2 мляко"));
+    }
+
+    @Test
+    void testLotPricesAreKeptExactInStotinki() {
+        PromotionEngine engine = new PromotionEngine();
+        engine.addPromotion(new MultiBuyPromotion("P1", "3 за 2 мляко", "F001", 3, 2));
+        engine.addPromotion(new CategoryPromotion("P2", "-10% нехранителни", Product.ProductCategory.NON_FOOD, 10));
+
+        // Milk sold from two lots: the free unit is the cheaper one, not an average of the two
+        List<Receipt.Discount> discounts = engine.evaluate(List.of(
+            new Receipt.ReceiptItem(milk, 1, 3.12, 3.12),
+            new Receipt.ReceiptItem(milk, 2, 3.00, 6.00),
+            new Receipt.ReceiptItem(soap, 1, 3.90, 3.90),
+            new Receipt.ReceiptItem(soap, 2, 4.05, 8.10)));
+
+        assertEquals(2, discounts.size());
+        assertEquals("P1", discounts.get(0).getPromotionId());
+        assertEquals(300, discounts.get(0).getAmountMinor());
+        assertEquals(120, discounts.get(1).getAmountMinor());
+    }
+
+    @Test
+    void testBundleAndCategoryAreExclusivePerUnit() {
+        store.addPromotion(new BundlePromotion("P1", "Закуска", Map.of("F001", 1, "F002", 1), 3.00));
+        store.addPromotion(new CategoryPromotion("P2", "-10% храни", Product.ProductCategory.FOOD, 10));
+
+        // Bundle saves 1.20 per pair and beats 10% off the food lines (0.42 per pair);
+        // the milk left over after two bundles still gets the category discount
+        Receipt receipt = store.processSale(register, basket(milk, 3, bread, 2, soap, 1));
+
+        List<Receipt.Discount> discounts = receipt.getDiscounts();
+        assertEquals(2, discounts.size());
+        assertEquals("P1", discounts.get(0).getPromotionId());
+        assertEquals(2.40, discounts.get(0).getAmount(), 0.001);
+        assertEquals("P2", discounts.get(1).getPromotionId());
+        assertEquals(0.30, discounts.get(1).getAmount(), 0.001);
+        assertEquals(3 * 3.00 + 2 * 1.20 + 3.90 - 2.70, receipt.getTotalAmount(), 0.001);
+    }
+
+    @Test
+    void testOnlyRelevantPromotionsApply() {
+        for (int i = 0; i < 1000; i++) {
+            store.addPromotion(new MultiBuyPromotion("X" + i, "Друго", "OTHER" + i, 2, 1));
+        }
+        store.addPromotion(new CategoryPromotion("P1", "-50% нехранителни", Product.ProductCategory.NON_FOOD, 50));
+
+        Receipt receipt = store.processSale(register, basket(milk, 1));
+
+        assertTrue(receipt.getDiscounts().isEmpty());
+        assertEquals(3.00, receipt.getTotalAmount(), 0.001);
+    }
+
+    @Test
+    void testRemovedPromotionNoLongerApplies() {
+        MultiBuyPromotion promotion = new MultiBuyPromotion("P1", "2 за 1", "NF001", 2, 1);
+        store.addPromotion(promotion);
+        store.removePromotion(promotion);
+
+        Receipt receipt = store.processSale(register, basket(soap, 2));
+
+        assertTrue(receipt.getDiscounts().isEmpty());
+    }
+
+    @Test
+    void testAddingTwiceIsUndoneByOneRemove() {
+        PromotionEngine engine = new PromotionEngine();
+        MultiBuyPromotion promotion = new MultiBuyPromotion("P1", "2 за 1", "NF001", 2, 1);
+        engine.addPromotion(promotion);
+        engine.addPromotion(promotion);
+        assertFalse(engine.isEmpty());
+
+        engine.removePromotion(promotion);
+
+        assertTrue(engine.isEmpty());
+        assertTrue(engine.evaluate(List.of(new Receipt.ReceiptItem(soap, 2, 3.90, 7.80))).isEmpty());
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.store.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+class ReceiptIndexTest {
+    @TempDir
+    Path dir;
+
+    private Store store;
+    private FoodProduct milk;
+    private NonFoodProduct soap;
+    private CashRegister register1;
+    private CashRegister register2;
+
+    @BeforeEach
+    void setUp() {
+        Receipt.resetReceiptNumber();
+        store = new Store("Test Store", 20.0, 30.0, 7, 15.0);
+        store.setReceiptDirectory(dir);
+        milk = new FoodProduct("F001", "Milk", 2.50, LocalDate.now().plusDays(30), 1000);
+        soap = new NonFoodProduct("NF001", "Soap", 3.00, LocalDate.now().plusMonths(6), 1000);
+        Cashier cashier1 = new Cashier("C001", "John Doe", 1500.0);
+        Cashier cashier2 = new Cashier("C002", "Jane Smith", 1600.0);
+        register1 = new CashRegister("R001");
+        register2 = new CashRegister("R002");
+        store.addProduct(milk);
+        store.addProduct(soap);
+        store.addCashier(cashier1);
+        store.addCashier(cashier2);
+        store.addCashRegister(register1);
+        store.addCashRegister(register2);
+        cashier1.assignToRegister(register1);
+        cashier2.assignToRegister(register2);
+
+        // Receipts 1..12 alternate between registers; every third contains milk
+        for (int i = 1; i <= 12; i++) {
+            CashRegister register = i % 2 == 0 ? register2 : register1;
+            Map<Product, Integer> items = i % 3 == 0 ? Map.of(milk, 1, soap, 1) : Map.of(soap, 1);
+            store.processSale(register, items);
+        }
+    }
+
+    private static List<Integer> numbers(List<Receipt> receipts) {
+        return receipts.stream().map(Receipt::getReceiptNumber).toList();
+    }
+
+    @Test
+    void testSingleCriterion() {
+        assertEquals(List.of(2, 4, 6, 8, 10, 12), numbers(store.queryReceipts(new ReceiptQuery().cashier("C002"))));
+        assertEquals(List.of(1, 3, 5, 7, 9, 11), numbers(store.queryReceipts(new ReceiptQuery().register("R001"))));
+        assertEquals(List.of(3, 6, 9, 12), numbers(store.queryReceipts(new ReceiptQuery().product("F001"))));
+    }
+
+    @Test
+    void testIntersection() {
+        assertEquals(List.of(6, 12),
+            numbers(store.queryReceipts(new ReceiptQuery().cashier("C002").product("F001"))));
+        assertTrue(store.queryReceipts(new ReceiptQuery().cashier("C002").register("R001")).isEmpty());
+        assertTrue(store.queryReceipts(new ReceiptQuery().product("UNKNOWN")).isEmpty());
+    }
+
+    @Test
+    void testTimeRange() {
+        List<Receipt> all = store.getAllReceipts();
+        LocalDateTime from = all.get(4).getTimestamp();
+        LocalDateTime to = all.get(9).getTimestamp().plusNanos(1);
+
+        List<Receipt> inRange = store.queryReceipts(new ReceiptQuery().between(from, to));
+        assertFalse(inRange.isEmpty());
+        assertTrue(inRange.stream().allMatch(r ->
+            !r.getTimestamp().isBefore(from) && r.getTimestamp().isBefore(to)));
+
+        List<Receipt> filtered = store.queryReceipts(new ReceiptQuery().between(from, to).product("F001"));
+        assertTrue(filtered.stream().allMatch(r -> r.getReceiptNumber() % 3 == 0));
+        assertTrue(store.queryReceipts(new ReceiptQuery().between(to.plusHours(1), null)).isEmpty());
+        assertEquals(12, store.queryReceipts(new ReceiptQuery()).size());
+    }
+
+    @Test
+    void testTimeRangeAcrossClocksGoingBack() {
+        // Sofia leaves summer time at 04:00 on 2024-10-27, so local times 03:00-03:59 happen twice
+        ZoneId sofia = ZoneId.of("Europe/Sofia");
+        Cashier cashier = store.findCashierById("C001");
+        List<Receipt> receipts = new ArrayList<>();
+        ReceiptIndex index = new ReceiptIndex(sofia);
+        for (String utc : List.of("00:30", "00:50", "01:10", "01:40")) {
+            Instant instant = Instant.parse("2024-10-27T" + utc + ":00Z");
+            Receipt receipt = new Receipt(cashier, "R001", 1, instant, sofia);
+            receipt.addItem(soap, 1, 3.90);
+            index.add(receipts.size(), receipt);
+            receipts.add(receipt);
+        }
+        // Local times run 03:30, 03:50, then 03:10 and 03:40 after the clocks go back
+        assertEquals(LocalDateTime.of(2024, 10, 27, 3, 10), receipts.get(2).getTimestamp());
+
+        LocalDateTime quarterToFour = LocalDateTime.of(2024, 10, 27, 3, 45);
+        List<Receipt> after = index.find(new ReceiptQuery().between(quarterToFour, null), receipts);
+        List<Receipt> before = index.find(new ReceiptQuery().between(null, quarterToFour), receipts);
+
+        assertEquals(receipts.subList(1, 4), after);
+        assertEquals(receipts.subList(0, 1), before);
+    }
+
+    @Test
+    void testQueriesStayWithinTheirViewWhileSalesCommit() throws Exception {
+        LocalDateTime start = store.getAllReceipts().get(0).getTimestamp();
+        LocalDateTime later = LocalDateTime.now().plusDays(1);
+        Thread seller = new Thread(() -> {
+            for (int i = 0; i < 300; i++) {
+                store.processSale(register1, Map.of(soap, 1));
+            }
+        });
+        seller.start();
+        while (seller.isAlive()) {
+            assertDoesNotThrow(() -> store.queryReceipts(new ReceiptQuery().between(start, later)));
+            assertDoesNotThrow(() -> store.queryReceipts(new ReceiptQuery().between(start, later).cashier("C001")));
+            assertDoesNotThrow(() -> store.queryReceipts(new ReceiptQuery().register("R001").product("NF001")));
+        }
+        seller.join();
+
+        // A view taken before the last sales never sees positions past its end
+        List<Receipt> stale = store.getAllReceipts().subList(0, 100);
+        assertEquals(stale, findIn(stale, new ReceiptQuery().between(start, later)));
+        // 6 of the first 12 receipts plus the 88 register1 sales that follow them
+        assertEquals(94, findIn(stale, new ReceiptQuery().cashier("C001")).size());
+    }
+
+    private List<Receipt> findIn(List<Receipt> view, ReceiptQuery query) {
+        ReceiptIndex index = new ReceiptIndex();
+        List<Receipt> all = store.getAllReceipts();
+        for (int i = 0; i < all.size(); i++) {
+            index.add(i, all.get(i));
+        }
+        return index.find(query, view);
+    }
+}
@@ -69,6 +69,7 @@ class ReceiptTest {
         String receiptText = receipt.generateReceiptText();
         
         assertTrue(receiptText.contains("Касов бон #1"));
+        assertTrue(receiptText.contains("Дата: " + receipt.getTimestamp() + "\n"));
         assertTrue(receiptText.contains("Касиер: John Doe"));
         assertTrue(receiptText.contains("Мляко x2 @ 3.00 лв."));
         assertTrue(receiptText.contains("Сапун x1 @ 4.00 лв."));
@@ -0,0 +1,111 @@
+package com.example.store.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+class SaleBasketTest {
+    @TempDir
+    Path dir;
+
+    private Store store;
+    private FoodProduct milk;
+    private NonFoodProduct soap;
+    private CashRegister register;
+    private int milkIndex;
+    private int soapIndex;
+
+    @BeforeEach
+    void setUp() {
+        Receipt.resetReceiptNumber();
+        store = new Store("Test Store", 20.0, 30.0, 7, 15.0);
+        store.setReceiptDirectory(dir);
+        milk = new FoodProduct("F001", "Milk", 2.50, LocalDate.now().plusDays(30), 1_000_000);
+        soap = new NonFoodProduct("NF001", "Soap", 3.00, LocalDate.now().plusMonths(6), 1_000_000);
+        store.addProduct(milk);
+        store.addProduct(soap);
+        Cashier cashier = new Cashier("C001", "John Doe", 1500.0);
+        register = new CashRegister("R001");
+        store.addCashier(cashier);
+        store.addCashRegister(register);
+        cashier.assignToRegister(register);
+        milkIndex = store.getProductIndex("F001");
+        soapIndex = store.getProductIndex("NF001");
+    }
+
+    @Test
+    void testBasketSaleMatchesMapSale() {
+        SaleBasket basket = new SaleBasket().add(milkIndex, 2).add(soapIndex, 1).add(milkIndex, 1);
+        ReceiptBuffer buffer = new ReceiptBuffer();
+
+        Receipt receipt = store.processSale(register, basket, buffer);
+
+        assertEquals(2, receipt.getItemCount());
+        assertEquals(3, receipt.getItemQuantity(0));
+        assertEquals(3 * 300 + 390, receipt.getTotalAmountMinor());
+        assertEquals(receipt.getTotalAmountMinor(), buffer.getTotalAmountMinor());
+        assertEquals(receipt.generateReceiptText(), buffer.getText().toString());
+        assertEquals(List.of(receipt), store.queryReceipts(new ReceiptQuery().product("NF001")));
+        assertEquals(receipt.getTotalAmount(), store.getTotalRevenue(), 0.001);
+        assertEquals(999_997, milk.getQuantity());
+        assertEquals(-1, store.getProductIndex("missing"));
+    }
+
+    @Test
+    void testBasketAndBufferAreReusable() {
+        SaleBasket basket = new SaleBasket(1);
+        ReceiptBuffer buffer = new ReceiptBuffer();
+        for (int i = 1; i <= 3; i++) {
+            basket.clear();
+            basket.add(milkIndex, i).add(soapIndex, 1);
+            store.processSale(register, basket, buffer);
+            assertEquals(i, buffer.getReceipt().getReceiptNumber());
+            assertTrue(buffer.getText().toString().startsWith("Касов бон #" + i + "\n"));
+        }
+        assertEquals(3, store.getTotalReceiptsCount());
+    }
+
+    @Test
+    void testZeroCapacityBasketGrowsOnFirstAdd() {
+        SaleBasket basket = new SaleBasket(0).add(milkIndex, 1).add(soapIndex, 2);
+
+        assertEquals(2, basket.size());
+        assertEquals(2, basket.getQuantity(1));
+        assertThrows(IllegalArgumentException.class, () -> new SaleBasket(-1));
+    }
+
+    @Test
+    void testSteadyStateAllocationIsSmall() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+        SaleBasket basket = new SaleBasket();
+        ReceiptBuffer buffer = new ReceiptBuffer();
+        for (int i = 0; i < 20_000; i++) {
+            basket.clear();
+            basket.add(milkIndex, 1).add(soapIndex, 2);
+            store.processSale(register, basket, buffer);
+        }
+
+        int sales = 20_000;
+        long before = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        for (int i = 0; i < sales; i++) {
+            basket.clear();
+            basket.add(milkIndex, 1).add(soapIndex, 2);
+            store.processSale(register, basket, buffer);
+        }
+        long perSale = (threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - before) / sales;
+
+        // What remains is the compact receipt kept in the history plus its index entries
+        assertTrue(perSale < 1024, "allocated " + perSale + " bytes per sale");
+    }
+}
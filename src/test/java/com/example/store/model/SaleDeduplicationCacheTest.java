@@ -0,0 +1,85 @@
+package com.example.store.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+class SaleDeduplicationCacheTest {
+    @TempDir
+    Path dir;
+
+    private Cashier cashier;
+    private CashRegister register;
+    private MutableClock clock;
+
+    @BeforeEach
+    void setUp() {
+        Receipt.resetReceiptNumber();
+        cashier = new Cashier("C001", "John Doe", 1500.0);
+        register = new CashRegister("R001");
+        cashier.assignToRegister(register);
+        clock = new MutableClock();
+    }
+
+    @Test
+    void testRetriedSaleReturnsOriginalReceipt() throws Exception {
+        Store store = new Store("Test Store", 20.0, 30.0, 7, 15.0);
+        store.setReceiptDirectory(dir);
+        FoodProduct milk = new FoodProduct("F001", "Milk", 2.50, LocalDate.now().plusDays(30), 100);
+        store.addProduct(milk);
+        store.addCashier(cashier);
+        store.addCashRegister(register);
+
+        Map<Product, Integer> items = new HashMap<>();
+        items.put(milk, 3);
+
+        Receipt first = store.processSale(register, items, "sale-1");
+        Path file = dir.resolve("receipt_" + first.getReceiptNumber() + ".txt");
+        assertTrue(Files.deleteIfExists(file));
+        Receipt retry = store.processSale(register, items, "sale-1");
+        assertFalse(Files.exists(file)); // the retry does not write the receipt again
+
+        assertSame(first, retry);
+        assertEquals(97, milk.getQuantity());
+        assertEquals(1, store.getTotalReceiptsCount());
+        assertEquals(first.getTotalAmount(), store.getTotalRevenue(), 0.001);
+
+        Receipt other = store.processSale(register, items, "sale-2");
+        assertNotSame(first, other);
+        assertEquals(94, milk.getQuantity());
+    }
+
+    @Test
+    void testEntriesExpireAfterTtl() {
+        SaleDeduplicationCache cache = new SaleDeduplicationCache(10, Duration.ofSeconds(30), clock);
+        Receipt receipt = register.createReceipt();
+
+        cache.put("sale-1", receipt);
+        clock.advance(Duration.ofSeconds(29));
+        assertSame(receipt, cache.get("sale-1"));
+
+        clock.advance(Duration.ofSeconds(2));
+        assertNull(cache.get("sale-1"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testSizeIsBounded() {
+        SaleDeduplicationCache cache = new SaleDeduplicationCache(2, Duration.ofMinutes(5), clock);
+        cache.put("sale-1", register.createReceipt());
+        cache.put("sale-2", register.createReceipt());
+        cache.put("sale-3", register.createReceipt());
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("sale-1"));
+        assertNotNull(cache.get("sale-3"));
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.store.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+
+class SalesVelocityTrackerTest {
+    @TempDir
+    Path dir;
+
+    private MutableClock clock;
+    private FoodProduct milk;
+
+    @BeforeEach
+    void setUp() {
+        Receipt.resetReceiptNumber();
+        clock = new MutableClock();
+        milk = new FoodProduct("F001", "Milk", 2.50, LocalDate.now().plusDays(2), 150);
+    }
+
+    @Test
+    void testSteadySalesConvergeToDailyRate() {
+        SalesVelocityTracker tracker = new SalesVelocityTracker(Duration.ofDays(3), clock);
+        for (int day = 0; day < 30; day++) {
+            tracker.recordSale(milk, 10);
+            clock.advance(Duration.ofDays(1));
+        }
+        clock.advance(Duration.ofHours(-12));
+
+        assertEquals(10.0, tracker.getDailyRate(milk), 0.5);
+    }
+
+    @Test
+    void testRateHalvesEveryHalfLife() {
+        SalesVelocityTracker tracker = new SalesVelocityTracker(Duration.ofDays(3), clock);
+        tracker.recordSale(milk, 30);
+        double rate = tracker.getDailyRate(milk);
+
+        clock.advance(Duration.ofDays(3));
+
+        assertEquals(rate / 2, tracker.getDailyRate(milk), 0.0001);
+        assertEquals(0.0, tracker.getDailyRate(new FoodProduct("F002", "Bread", 1.0, LocalDate.now(), 1)));
+    }
+
+    @Test
+    void testVelocityMarkdownFollowsProjectedLeftover() {
+        Store store = new Store("Test Store", 20.0, 30.0, 7, 15.0);
+        store.setReceiptDirectory(dir);
+        SalesVelocityTracker tracker = new SalesVelocityTracker(Duration.ofDays(1), clock);
+        store.setSalesVelocityTracker(tracker);
+        store.addProduct(milk);
+        Cashier cashier = new Cashier("C001", "John Doe", 1500.0);
+        CashRegister register = new CashRegister("R001");
+        store.addCashier(cashier);
+        store.addCashRegister(register);
+        cashier.assignToRegister(register);
+
+        // Without sales history nothing is projected to sell, so the full discount applies
+        assertEquals(3.00 * 0.85, store.calculateProductPrice(milk), 0.001);
+        store.setMarkdownMode(Store.MarkdownMode.VELOCITY);
+        assertEquals(3.00 * 0.85, store.calculateProductPrice(milk), 0.001);
+
+        store.processSale(register, Map.of(milk, 20));
+        double projectedLeftover = 130 - tracker.getDailyRate(milk) * 3;
+        assertEquals(3.00 * (1 - 0.15 * projectedLeftover / 130), store.calculateProductPrice(milk), 0.001);
+
+        // A fresh delivery sells after the expiring lot, so it does not deepen that lot's markdown
+        store.receiveLot(milk, new ProductLot(2.50, LocalDate.now().plusDays(30), 500));
+        assertEquals(3.00 * (1 - 0.15 * projectedLeftover / 130), store.calculateProductPrice(milk), 0.001);
+
+        // Selling fast enough to clear the rest before expiry removes the markdown
+        store.processSale(register, Map.of(milk, 80));
+        assertEquals(3.00, store.calculateProductPrice(milk), 0.001);
+    }
+}
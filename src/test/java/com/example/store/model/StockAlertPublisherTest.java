@@ -0,0 +1,104 @@
+package com.example.store.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+class StockAlertPublisherTest {
+    private Store store;
+    private FoodProduct milk;
+
+    @BeforeEach
+    void setUp() {
+        store = new Store("Test Store", 20.0, 30.0, 7, 15.0);
+        milk = new FoodProduct("F001", "Milk", 2.50, LocalDate.now().plusDays(30), 20);
+        store.addProduct(milk);
+    }
+
+    @Test
+    void testLowStockAndOutOfStockAlerts() throws Exception {
+        CollectingSubscriber subscriber = new CollectingSubscriber(2);
+        store.getStockAlerts().subscribe(subscriber);
+        store.setLowStockThreshold(milk, 5);
+
+        milk.decreaseQuantity(10); // 10 left, above threshold
+        milk.decreaseQuantity(6);  // 4 left, crosses threshold
+        milk.decreaseQuantity(1);  // 3 left, already below
+        milk.decreaseQuantity(3);  // out of stock
+
+        assertTrue(subscriber.latch.await(5, TimeUnit.SECONDS));
+        assertEquals(StockAlert.Type.LOW_STOCK, subscriber.alerts.get(0).getType());
+        assertEquals(4, subscriber.alerts.get(0).getQuantity());
+        assertEquals(StockAlert.Type.OUT_OF_STOCK, subscriber.alerts.get(1).getType());
+        assertEquals(2, subscriber.alerts.size());
+    }
+
+    @Test
+    void testNearExpiryAlertOnDayTick() throws Exception {
+        CollectingSubscriber subscriber = new CollectingSubscriber(1);
+        store.getStockAlerts().subscribe(subscriber);
+
+        store.onDayTick(LocalDate.now().plusDays(22));
+        assertFalse(subscriber.latch.await(200, TimeUnit.MILLISECONDS));
+
+        store.onDayTick(LocalDate.now().plusDays(23));
+        assertTrue(subscriber.latch.await(5, TimeUnit.SECONDS));
+        assertEquals(StockAlert.Type.NEAR_EXPIRY, subscriber.alerts.get(0).getType());
+        assertSame(milk, subscriber.alerts.get(0).getProduct());
+
+        store.onDayTick(LocalDate.now().plusDays(24));
+        Thread.sleep(100);
+        assertEquals(1, subscriber.alerts.size());
+    }
+
+    @Test
+    void testSlowSubscriberDoesNotBlockSales() {
+        StockAlertPublisher publisher = new StockAlertPublisher(100, 7, Runnable::run, 1);
+        publisher.subscribe(new Flow.Subscriber<>() {
+            @Override public void onSubscribe(Flow.Subscription subscription) { }
+            @Override public void onNext(StockAlert item) { }
+            @Override public void onError(Throwable throwable) { }
+            @Override public void onComplete() { }
+        });
+
+        for (int i = 0; i < 10; i++) {
+            publisher.onStockChanged(milk, 1, 0);
+        }
+
+        assertTrue(publisher.getDroppedAlertsCount() > 0);
+        publisher.close();
+    }
+
+    private static final class CollectingSubscriber implements Flow.Subscriber<StockAlert> {
+        private final List<StockAlert> alerts = new CopyOnWriteArrayList<>();
+        private final CountDownLatch latch;
+
+        CollectingSubscriber(int expected) {
+            this.latch = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(StockAlert item) {
+            alerts.add(item);
+            latch.countDown();
+        }
+
+        @Override
+        public void onError(Throwable throwable) { }
+
+        @Override
+        public void onComplete() { }
+    }
+}
@@ -2,13 +2,19 @@ package com.example.store.model;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 class StoreTest {
+    @TempDir
+    Path dir;
+
     private Store store;
     private FoodProduct milk;
     private NonFoodProduct soap;
@@ -19,6 +25,7 @@ class StoreTest {
     void setUp() {
         Receipt.resetReceiptNumber();
         store = new Store("Test Store", 20.0, 30.0, 7, 15.0);
+        store.setReceiptDirectory(dir);
         
         milk = new FoodProduct("F001", "Milk", 2.50, 
                                LocalDate.now().plusDays(5), 100);
@@ -167,4 +174,142 @@ class StoreTest {
         
         assertEquals(expectedProfit, store.calculateProfit(), 0.001);
     }
+
+    @Test
+    void testReceiveLotAndDiscardExpired() {
+        double deliveryCosts = store.getTotalDeliveryCosts();
+        store.receiveLot(milk, new ProductLot(2.70, LocalDate.now().plusDays(20), 40));
+        assertEquals(deliveryCosts + 2.70 * 40, store.getTotalDeliveryCosts(), 0.001);
+        assertEquals(140, milk.getQuantity());
+
+        Map<Product, Integer> items = new HashMap<>();
+        items.put(milk, 30);
+        store.processSale(register, items);
+        assertEquals(70, milk.getLots().get(0).getQuantity());
+
+        // On the day after the first lot expires its remaining stock is written off
+        store.onDayTick(LocalDate.now().plusDays(6));
+        assertEquals(40, milk.getQuantity());
+        assertEquals(LocalDate.now().plusDays(20), milk.getExpirationDate());
+        assertEquals(0, soap.getQuantity());
+    }
+
+    @Test
+    void testSellableProductsFollowStockAndExpiry() {
+        FoodProduct expiredMilk = new FoodProduct("F002", "Expired Milk", 2.50,
+                                                  LocalDate.now().minusDays(1), 50);
+        FoodProduct bread = new FoodProduct("F003", "Bread", 1.20, LocalDate.now().plusDays(2), 0);
+        store.addProduct(expiredMilk);
+        store.addProduct(bread);
+        assertEquals(List.of(milk, soap), store.getSellableProducts());
+        assertFalse(store.isSellable(expiredMilk));
+
+        store.restockProduct(bread, 10);
+        Map<Product, Integer> items = new HashMap<>();
+        items.put(milk, 100);
+        store.processSale(register, items);
+        assertEquals(List.of(soap, bread), store.getSellableProducts());
+
+        // Bread expires after two days; soap gets a fresh lot before its first one runs out
+        store.receiveLot(soap, new ProductLot(3.00, LocalDate.now().plusDays(30), 5));
+        store.onDayTick(LocalDate.now().plusDays(3));
+        assertEquals(List.of(soap), store.getSellableProducts());
+        assertTrue(store.isSellable(soap));
+        assertFalse(store.isSellable(bread));
+    }
+
+    @Test
+    void testSaleAcrossLotsIsPricedPerLot() {
+        store.receiveLot(milk, new ProductLot(2.70, LocalDate.now().plusDays(20), 40));
+
+        Receipt receipt = store.processSale(register, Map.of(milk, 110));
+
+        // 100 units from the expiring lot at its markdown, 10 from the fresh lot at full price
+        assertEquals(2, receipt.getItemCount());
+        assertEquals(100, receipt.getItemQuantity(0));
+        assertEquals(255, receipt.getItemUnitPriceMinor(0));
+        assertEquals(10, receipt.getItemQuantity(1));
+        assertEquals(324, receipt.getItemUnitPriceMinor(1));
+        assertEquals(100 * 250 + 10 * 270, receipt.getItemCostMinor(0) + receipt.getItemCostMinor(1));
+        assertEquals(100 * 255 + 10 * 324, receipt.getTotalAmountMinor());
+    }
+
+    @Test
+    void testExpiredLotDoesNotBlockFreshStock() {
+        FoodProduct yogurt = new FoodProduct("F004", "Yogurt", 1.00, LocalDate.now().minusDays(2), 40);
+        store.addProduct(yogurt);
+        assertFalse(store.isSellable(yogurt));
+        store.receiveLot(yogurt, new ProductLot(1.10, LocalDate.now().plusDays(20), 25));
+        assertTrue(store.isSellable(yogurt));
+
+        Receipt receipt = store.processSale(register, Map.of(yogurt, 5));
+        assertEquals(132, receipt.getItemUnitPriceMinor(0));
+        assertEquals(60, yogurt.getQuantity());
+        assertThrows(Product.InsufficientStockException.class,
+            () -> store.processSale(register, Map.of(yogurt, 21)));
+    }
+
+    @Test
+    void testTotalsAreExactInStotinki() {
+        long expected = 0;
+        for (int i = 0; i < 50; i++) {
+            Map<Product, Integer> items = new HashMap<>();
+            items.put(milk, 1);
+            items.put(soap, 1);
+            expected += store.processSale(register, items).getTotalAmountMinor();
+        }
+
+        // Near expiry: milk 2.50 * 1.20 * 0.85 = 2.55, soap 3.00 * 1.30 * 0.85 = 3.315 -> 3.32
+        assertEquals(50 * (255 + 332), expected);
+        assertEquals(expected, store.getSnapshot().getTotalRevenueMinor());
+        assertEquals(293.50, store.getTotalRevenue());
+    }
+
+    @Test
+    void testSnapshotIsConsistentPointInTime() {
+        StoreSnapshot before = store.getSnapshot();
+
+        Map<Product, Integer> items = new HashMap<>();
+        items.put(milk, 2);
+        store.processSale(register, items);
+
+        StoreSnapshot after = store.getSnapshot();
+        assertTrue(after.getVersion() > before.getVersion());
+        assertEquals(0, before.getReceiptsCount());
+        assertEquals(0.0, before.getTotalRevenue());
+        assertEquals(1, after.getReceiptsCount());
+        assertEquals(after.getTotalRevenue() - after.getTotalDeliveryCosts() - after.getTotalSalaryCosts(),
+                     after.calculateProfit(), 0.001);
+        assertEquals(after.getTotalRevenue(), store.getTotalRevenue());
+    }
+
+    @Test
+    void testReceiptViewsAndNumberRange() {
+        for (int i = 0; i < 5; i++) {
+            Map<Product, Integer> items = new HashMap<>();
+            items.put(milk, 1);
+            store.processSale(register, items);
+        }
+
+        List<Receipt> view = store.getAllReceipts();
+        assertEquals(5, view.size());
+        assertThrows(UnsupportedOperationException.class, () -> view.add(view.get(0)));
+
+        List<Receipt> range = store.getReceiptsByNumberRange(2, 4);
+        assertEquals(3, range.size());
+        assertEquals(2, range.get(0).getReceiptNumber());
+        assertEquals(4, range.get(2).getReceiptNumber());
+        assertTrue(store.getReceiptsByNumberRange(10, 20).isEmpty());
+
+        List<Receipt> page = store.getReceiptsPage(4, 10);
+        assertEquals(1, page.size());
+        assertEquals(5, page.get(0).getReceiptNumber());
+
+        // Views are fixed at the size they were taken with
+        Map<Product, Integer> items = new HashMap<>();
+        items.put(soap, 1);
+        store.processSale(register, items);
+        assertEquals(5, view.size());
+        assertEquals(6, store.getAllReceipts().size());
+    }
 }
@@ -0,0 +1,158 @@
+package com.example.store.pipeline;
+
+import com.example.store.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+class SalePipelineTest {
+    @TempDir
+    Path dir;
+
+    private Store store;
+    private FoodProduct milk;
+    private CashRegister register1;
+    private CashRegister register2;
+
+    @BeforeEach
+    void setUp() {
+        Receipt.resetReceiptNumber();
+        store = new Store("Test Store", 20.0, 30.0, 7, 15.0);
+        store.setReceiptDirectory(dir);
+        milk = new FoodProduct("F001", "Milk", 2.50, LocalDate.now().plusDays(30), 1000);
+        store.addProduct(milk);
+        Cashier cashier1 = new Cashier("C001", "John Doe", 1500.0);
+        Cashier cashier2 = new Cashier("C002", "Jane Smith", 1600.0);
+        register1 = new CashRegister("R001");
+        register2 = new CashRegister("R002");
+        store.addCashier(cashier1);
+        store.addCashier(cashier2);
+        store.addCashRegister(register1);
+        store.addCashRegister(register2);
+        cashier1.assignToRegister(register1);
+        cashier2.assignToRegister(register2);
+    }
+
+    @Test
+    void testPipelinedSalesCommitAndPersist() throws Exception {
+        List<CompletableFuture<Receipt>> results = new ArrayList<>();
+        try (SalePipeline pipeline = new SalePipeline(store, 64)) {
+            for (int i = 0; i < 200; i++) {
+                CashRegister register = i % 2 == 0 ? register1 : register2;
+                results.add(pipeline.submit(register, Map.of(milk, 2), null, Duration.ofSeconds(5)));
+            }
+        }
+
+        for (CompletableFuture<Receipt> result : results) {
+            Receipt receipt = result.get(5, TimeUnit.SECONDS);
+            assertTrue(Files.exists(dir.resolve("receipt_" + receipt.getReceiptNumber() + ".txt")));
+        }
+        assertEquals(200, store.getTotalReceiptsCount());
+        assertEquals(600, milk.getQuantity());
+        assertEquals(200 * 2 * 3.00, store.getTotalRevenue(), 0.001);
+    }
+
+    @Test
+    void testStaleQuoteIsRepricedForTheLotActuallySold() {
+        store.receiveLot(milk, new ProductLot(5.00, LocalDate.now().plusDays(60), 10));
+        LotPrice quote = store.quoteLotPrice(milk);
+        assertEquals(300, quote.getUnitPriceMinor());
+
+        // Another sale empties the quoted lot before the priced sale commits
+        store.processSale(register2, Map.of(milk, 1000));
+        Receipt receipt = store.commitPricedSale(register1, Map.of(milk, 2), Map.of(milk, quote), null);
+
+        assertEquals(600, receipt.getItems().get(0).getUnitPriceMinor());
+        assertEquals(1200, receipt.getTotalAmountMinor());
+    }
+
+    @Test
+    void testInvalidSaleFailsWithoutReachingStore() throws Exception {
+        CashRegister idle = new CashRegister("R003");
+        store.addCashRegister(idle);
+        try (SalePipeline pipeline = new SalePipeline(store, 8)) {
+            CompletableFuture<Receipt> noCashier = pipeline.trySubmit(idle, Map.of(milk, 1));
+            CompletableFuture<Receipt> tooMany = pipeline.trySubmit(register1, Map.of(milk, 5000));
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> noCashier.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+            e = assertThrows(ExecutionException.class, () -> tooMany.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(Product.InsufficientStockException.class, e.getCause());
+        }
+        assertEquals(0, store.getTotalReceiptsCount());
+    }
+
+    @Test
+    void testFullRingRejectsInsteadOfQueuing() throws Exception {
+        List<CompletableFuture<Receipt>> accepted = new ArrayList<>();
+        boolean rejected = false;
+        try (SalePipeline pipeline = new SalePipeline(store, 1)) {
+            // Holding the store lock stalls the commit stage, so the stages behind it fill up
+            synchronized (store) {
+                for (int i = 0; i < 100 && !rejected; i++) {
+                    try {
+                        accepted.add(pipeline.trySubmit(register1, Map.of(milk, 1)));
+                    } catch (RejectedExecutionException e) {
+                        rejected = true;
+                    }
+                    Thread.sleep(10);
+                }
+            }
+        }
+
+        assertTrue(rejected);
+        assertTrue(accepted.size() < 10);
+        for (CompletableFuture<Receipt> result : accepted) {
+            assertNotNull(result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(accepted.size(), store.getTotalReceiptsCount());
+    }
+
+    @Test
+    void testSalesSubmittedWhileClosingAreNeverStranded() throws Exception {
+        List<CompletableFuture<Receipt>> accepted = Collections.synchronizedList(new ArrayList<>());
+        store.restockProduct(milk, 100_000);
+        SalePipeline pipeline = new SalePipeline(store, 4);
+        List<Thread> submitters = new ArrayList<>();
+        for (CashRegister register : List.of(register1, register2)) {
+            Thread submitter = new Thread(() -> {
+                while (true) {
+                    try {
+                        accepted.add(pipeline.trySubmit(register, Map.of(milk, 1)));
+                    } catch (RejectedExecutionException e) {
+                        if (e.getMessage().contains("closed")) {
+                            return;
+                        }
+                    }
+                }
+            });
+            submitter.start();
+            submitters.add(submitter);
+        }
+
+        Thread.sleep(20);
+        pipeline.close();
+        for (Thread submitter : submitters) {
+            submitter.join(TimeUnit.SECONDS.toMillis(5));
+        }
+
+        for (CompletableFuture<Receipt> result : accepted) {
+            assertNotNull(result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(accepted.size(), store.getTotalReceiptsCount());
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.store.replication;
+
+import com.example.store.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+class ReplicationTest {
+    @TempDir
+    Path dir;
+
+    private Store primary;
+    private FoodProduct milk;
+    private NonFoodProduct soap;
+    private CashRegister register;
+
+    @BeforeEach
+    void setUp() {
+        Receipt.resetReceiptNumber();
+        primary = new Store("Primary", 20.0, 30.0, 7, 15.0);
+        primary.setReceiptDirectory(dir);
+        milk = new FoodProduct("F001", "Мляко", 2.50, LocalDate.now().plusDays(30), 100);
+        soap = new NonFoodProduct("NF001", "Сапун", 3.00, LocalDate.now().plusMonths(6), 200);
+        Cashier cashier = new Cashier("C001", "Иван Иванов", 1500.0);
+        register = new CashRegister("R001");
+        primary.addProduct(milk);
+        primary.addCashier(cashier);
+        primary.addCashRegister(register);
+        cashier.assignToRegister(register);
+    }
+
+    @Test
+    void testFollowerReplaysSalesAndTakesOver() throws Exception {
+        Store replica = new Store("Standby", 20.0, 30.0, 7, 15.0);
+        replica.setReceiptDirectory(dir);
+
+        try (ReplicationFollower follower = new ReplicationFollower(replica, 0);
+             ReplicationPrimary shipper = new ReplicationPrimary(dir.resolve("store.wal"),
+                 new InetSocketAddress(InetAddress.getLoopbackAddress(), follower.getPort()))) {
+            primary.setJournal(shipper);
+
+            primary.addProduct(soap);
+            // Discounts come from the primary's promotions; the replica has none of its own
+            primary.addPromotion(new MultiBuyPromotion("P1", "2 за 1: мляко", "F001", 2, 1));
+            for (int i = 0; i < 20; i++) {
+                primary.processSale(register, Map.of(milk, 2, soap, 1), "sale-" + i);
+            }
+            primary.restockProduct(milk, 10);
+            primary.receiveLot(soap, new ProductLot(3.20, LocalDate.now().plusMonths(9), 50));
+
+            // 3 initial entries, 1 product, 20 sales, 1 restock, 1 lot
+            assertTrue(follower.awaitSequence(26, Duration.ofSeconds(10)));
+
+            Store promoted = follower.promote();
+            assertEquals(primary.getTotalReceiptsCount(), promoted.getTotalReceiptsCount());
+            assertEquals(primary.getTotalRevenue(), promoted.getTotalRevenue(), 0.001);
+            assertEquals(primary.getTotalDeliveryCosts(), promoted.getTotalDeliveryCosts(), 0.001);
+            assertEquals(70, promoted.findProductById("F001").getQuantity());
+            assertEquals(230, promoted.findProductById("NF001").getQuantity());
+            assertEquals(2, promoted.findProductById("NF001").getLots().size());
+
+            // The promoted replica keeps selling
+            CashRegister standbyRegister = promoted.findRegisterById("R001");
+            promoted.processSale(standbyRegister, Map.of(promoted.findProductById("F001"), 1));
+            assertEquals(69, promoted.findProductById("F001").getQuantity());
+        }
+    }
+
+    @Test
+    void testFollowerCatchesUpFromLogAfterLateStart() throws Exception {
+        Path wal = dir.resolve("store.wal");
+        Store replica = new Store("Standby", 20.0, 30.0, 7, 15.0);
+        replica.setReceiptDirectory(dir);
+
+        // Reserve a free port, then release it so the follower can bind it later
+        int port;
+        try (ServerSocket reserved = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            port = reserved.getLocalPort();
+        }
+
+        try (ReplicationPrimary shipper = new ReplicationPrimary(wal,
+                 new InetSocketAddress(InetAddress.getLoopbackAddress(), port))) {
+            primary.setJournal(shipper);
+            for (int i = 0; i < 5; i++) {
+                primary.processSale(register, Map.of(milk, 1));
+            }
+
+            try (ReplicationFollower follower = new ReplicationFollower(replica, port)) {
+                assertTrue(follower.awaitSequence(8, Duration.ofSeconds(10)));
+                assertEquals(95, replica.findProductById("F001").getQuantity());
+                assertEquals(5, replica.getTotalReceiptsCount());
+            }
+        }
+    }
+
+    @Test
+    void testSaleIsOnDiskWhenProcessSaleReturns() throws Exception {
+        Path wal = dir.resolve("store.wal");
+        InetSocketAddress nobody = new InetSocketAddress(InetAddress.getLoopbackAddress(), 1);
+
+        try (ReplicationPrimary shipper = new ReplicationPrimary(wal, nobody)) {
+            primary.setJournal(shipper);
+            primary.processSale(register, Map.of(milk, 1), "sale-1");
+
+            // 3 initial entries and the sale, forced before processSale returned
+            assertEquals(4, shipper.getLastWrittenSequence());
+            List<String> lines = Files.readAllLines(wal, StandardCharsets.UTF_8);
+            assertEquals(WalEntry.Type.SALE, WalEntry.decode(lines.get(3)).getType());
+        }
+    }
+
+    @Test
+    void testEveryLotIsJournaledOnceWithItsOwnPriceAndExpiry() throws Exception {
+        Path wal = dir.resolve("store.wal");
+        InetSocketAddress nobody = new InetSocketAddress(InetAddress.getLoopbackAddress(), 1);
+        // The later delivery expires first, so it becomes the lot sold next
+        primary.receiveLot(milk, new ProductLot(2.20, LocalDate.now().plusDays(10), 40));
+        primary.receiveLot(milk, new ProductLot(2.80, LocalDate.now().plusDays(50), 60));
+
+        try (ReplicationPrimary shipper = new ReplicationPrimary(wal, nobody)) {
+            primary.setJournal(shipper);
+        }
+
+        Store replica = new Store("Standby", 20.0, 30.0, 7, 15.0);
+        for (String line : Files.readAllLines(wal, StandardCharsets.UTF_8)) {
+            WalEntry.decode(line).applyTo(replica);
+        }
+        List<ProductLot> expected = milk.getLots();
+        List<ProductLot> replayed = replica.findProductById("F001").getLots();
+        assertEquals(expected.size(), replayed.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getDeliveryPriceMinor(), replayed.get(i).getDeliveryPriceMinor());
+            assertEquals(expected.get(i).getExpirationDate(), replayed.get(i).getExpirationDate());
+            assertEquals(expected.get(i).getQuantity(), replayed.get(i).getQuantity());
+        }
+        assertEquals(200, replica.findProductById("F001").getQuantity());
+        assertEquals(primary.getTotalDeliveryCosts(), replica.getTotalDeliveryCosts(), 0.001);
+    }
+
+    @Test
+    void testClosedJournalRefusesSalesBeforeSelling() throws Exception {
+        InetSocketAddress nobody = new InetSocketAddress(InetAddress.getLoopbackAddress(), 1);
+        ReplicationPrimary shipper = new ReplicationPrimary(dir.resolve("store.wal"), nobody);
+        primary.setJournal(shipper);
+        shipper.close();
+
+        assertThrows(IllegalStateException.class, () -> primary.processSale(register, Map.of(milk, 1), "sale-1"));
+        assertEquals(100, milk.getQuantity());
+        assertEquals(0, primary.getTotalReceiptsCount());
+    }
+
+    @Test
+    void testTornLastLineIsDroppedOnRestart() throws Exception {
+        Path wal = dir.resolve("store.wal");
+        Files.writeString(wal, WalEntry.register(1, new CashRegister("R009")).encode() + "\n2\tREGI",
+                          StandardCharsets.UTF_8);
+        InetSocketAddress nobody = new InetSocketAddress(InetAddress.getLoopbackAddress(), 1);
+
+        try (ReplicationPrimary shipper = new ReplicationPrimary(wal, nobody)) {
+            assertEquals(1, shipper.getLastWrittenSequence());
+            shipper.registerAdded(new CashRegister("R010"));
+        }
+
+        List<String> lines = Files.readAllLines(wal, StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        assertEquals(2, WalEntry.decode(lines.get(1)).getSequence());
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.store.report;
+
+import com.example.store.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+class ReportEngineTest {
+    @TempDir
+    Path dir;
+
+    private Store store;
+    private FoodProduct milk;
+    private NonFoodProduct soap;
+    private CashRegister register1;
+    private CashRegister register2;
+    private ReportEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        Receipt.resetReceiptNumber();
+        store = new Store("Test Store", 20.0, 30.0, 7, 15.0);
+        store.setReceiptDirectory(dir);
+        milk = new FoodProduct("F001", "Milk", 2.50, LocalDate.now().plusDays(30), 1000);
+        soap = new NonFoodProduct("NF001", "Soap", 3.00, LocalDate.now().plusMonths(6), 1000);
+        Cashier cashier1 = new Cashier("C001", "John Doe", 1500.0);
+        Cashier cashier2 = new Cashier("C002", "Jane Smith", 1600.0);
+        register1 = new CashRegister("R001");
+        register2 = new CashRegister("R002");
+        store.addProduct(milk);
+        store.addProduct(soap);
+        store.addCashier(cashier1);
+        store.addCashier(cashier2);
+        store.addCashRegister(register1);
+        store.addCashRegister(register2);
+        cashier1.assignToRegister(register1);
+        cashier2.assignToRegister(register2);
+        engine = new ReportEngine(new ForkJoinPool(4), 8);
+        sell(100);
+    }
+
+    // Odd sales go through register 1 and buy two milks, even sales buy one soap
+    private void sell(int count) {
+        for (int i = 1; i <= count; i++) {
+            if (i % 2 == 1) {
+                store.processSale(register1, Map.of(milk, 2));
+            } else {
+                store.processSale(register2, Map.of(soap, 1));
+            }
+        }
+    }
+
+    @Test
+    void testParallelAggregateMatchesStoreTotals() {
+        PeriodReport report = engine.aggregate(store.getAllReceipts(), ReportPeriod.DAY);
+
+        assertEquals(1, report.getBuckets().size());
+        PeriodReport.Totals today = report.getBuckets().get(LocalDate.now());
+        assertEquals(100, today.getReceipts());
+        assertEquals(store.getTotalRevenue(), today.getRevenue(), 0.001);
+        assertEquals(50 * 2 * 2.50 + 50 * 3.00, today.getCostOfGoods(), 0.001);
+
+        // A new lot that sells first does not change the cost of goods already sold
+        store.receiveLot(milk, new ProductLot(9.00, LocalDate.now().plusDays(10), 5));
+        PeriodReport again = engine.aggregate(store.getAllReceipts(), ReportPeriod.DAY);
+        assertEquals(today.getCostOfGoods(), again.getBuckets().get(LocalDate.now()).getCostOfGoods(), 0.001);
+
+        PeriodReport.CashierStats john = report.getCashierStats().get("C001");
+        assertEquals(50, john.getReceipts());
+        assertEquals(100, john.getItemsSold());
+        assertEquals(300.0, john.getRevenue(), 0.001);
+    }
+
+    @Test
+    void testTopSellersAndCsv() throws Exception {
+        PeriodReport report = engine.aggregate(store.getAllReceipts(), ReportPeriod.MONTH);
+
+        List<Map.Entry<String, PeriodReport.ProductSales>> top = report.topSellers(1);
+        assertEquals(1, top.size());
+        assertEquals("F001", top.get(0).getKey());
+        assertEquals(100, top.get(0).getValue().getQuantity());
+
+        StringWriter out = new StringWriter();
+        report.writeCsv(out);
+        String csv = out.toString();
+        assertTrue(csv.startsWith("period,receipts,revenue,costOfGoods,grossProfit"));
+        assertTrue(csv.contains(LocalDate.now().withDayOfMonth(1) + ",100,495.00,400.00,95.00"));
+    }
+
+    @Test
+    void testIncrementalRefreshOnlyProcessesNewReceipts() {
+        IncrementalReport monthToDate = new IncrementalReport(store, engine, ReportPeriod.DAY,
+                                                              LocalDate.now().atStartOfDay());
+        PeriodReport first = monthToDate.refresh();
+        assertEquals(100, first.getBuckets().get(LocalDate.now()).getReceipts());
+        assertEquals(100, monthToDate.getProcessedCount());
+
+        sell(20);
+        PeriodReport refreshed = monthToDate.refresh();
+        // The earlier result is a snapshot and keeps its values
+        assertEquals(100, first.getBuckets().get(LocalDate.now()).getReceipts());
+        assertEquals(50, first.getCashierStats().get("C001").getReceipts());
+        assertEquals(120, monthToDate.getProcessedCount());
+        assertEquals(120, refreshed.getBuckets().get(LocalDate.now()).getReceipts());
+        assertEquals(store.getTotalRevenue(), refreshed.getBuckets().get(LocalDate.now()).getRevenue(), 0.001);
+    }
+
+    @Test
+    void testIncrementalReportSkipsReceiptsBeforeStart() {
+        IncrementalReport future = new IncrementalReport(store, engine, ReportPeriod.DAY,
+                                                         LocalDateTime.now().plusDays(1));
+        assertTrue(future.refresh().getBuckets().isEmpty());
+        assertEquals(100, future.getProcessedCount());
+    }
+}
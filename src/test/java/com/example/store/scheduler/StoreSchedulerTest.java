@@ -0,0 +1,155 @@
+package com.example.store.scheduler;
+
+import com.example.store.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+class StoreSchedulerTest {
+    @TempDir
+    Path dir;
+
+    private Store store;
+    private FoodProduct milk;
+    private CashRegister register;
+
+    @BeforeEach
+    void setUp() {
+        Receipt.resetReceiptNumber();
+        store = new Store("Test Store", 20.0, 30.0, 7, 15.0);
+        store.setReceiptDirectory(dir);
+        milk = new FoodProduct("F001", "Milk", 2.50, LocalDate.now().plusDays(30), 1000);
+        store.addProduct(milk);
+        Cashier cashier = new Cashier("C001", "John Doe", 1500.0);
+        register = new CashRegister("R001");
+        store.addCashier(cashier);
+        store.addCashRegister(register);
+        cashier.assignToRegister(register);
+    }
+
+    @Test
+    void testSalesCompleteWhileReportIsRunning() throws Exception {
+        CountDownLatch reportRunning = new CountDownLatch(1);
+        CountDownLatch releaseReport = new CountDownLatch(1);
+        List<CompletableFuture<Receipt>> results = new ArrayList<>();
+        CompletableFuture<Integer> report;
+        LaneMetrics sales;
+
+        try (StoreScheduler scheduler = new StoreScheduler(store, 2, 1, 64)) {
+            report = scheduler.submitReport(() -> {
+                reportRunning.countDown();
+                releaseReport.await();
+                return store.getAllReceipts().size();
+            });
+            assertTrue(reportRunning.await(5, TimeUnit.SECONDS));
+
+            for (int i = 0; i < 20; i++) {
+                results.add(scheduler.submitSale(register, Map.of(milk, 1), null));
+            }
+            for (CompletableFuture<Receipt> result : results) {
+                assertEquals(300, result.get(5, TimeUnit.SECONDS).getTotalAmountMinor());
+            }
+            assertFalse(report.isDone());
+            releaseReport.countDown();
+            assertEquals(20, report.get(5, TimeUnit.SECONDS));
+            sales = scheduler.getMetrics(StoreScheduler.Lane.SALES);
+        }
+
+        // A future completes just before its lane counts the task, so check the counts once closed
+        assertEquals(20, sales.getCompleted());
+        assertTrue(sales.getLatencyPercentile(0.99).compareTo(sales.getLatencyPercentile(0.50)) >= 0);
+
+        // Closing waits for the persistence lane to write every receipt
+        for (CompletableFuture<Receipt> result : results) {
+            assertTrue(Files.exists(dir.resolve("receipt_" + result.get().getReceiptNumber() + ".txt")));
+        }
+        assertEquals(980, milk.getQuantity());
+    }
+
+    @Test
+    void testReportsAreRefusedWhileSalesAreBackedUp() throws Exception {
+        CountDownLatch releaseSales = new CountDownLatch(1);
+        store.addReceiptListener(receipt -> {
+            try {
+                releaseSales.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        try (StoreScheduler scheduler = new StoreScheduler(store, 1, 1, 8)) {
+            scheduler.setReportAdmissionLimit(2);
+            List<CompletableFuture<Receipt>> results = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                results.add(scheduler.submitSale(register, Map.of(milk, 1), null));
+            }
+            LaneMetrics sales = scheduler.getMetrics(StoreScheduler.Lane.SALES);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (sales.getQueueDepth() > 2) {
+                assertTrue(System.nanoTime() < deadline, "First sale never started");
+                Thread.onSpinWait();
+            }
+            assertEquals(2, sales.getQueueDepth());
+            assertThrows(RejectedExecutionException.class, () -> scheduler.submitReport(() -> 1));
+            assertEquals(1, scheduler.getMetrics(StoreScheduler.Lane.REPORTING).getRejected());
+
+            // A full sales queue rejects instead of growing
+            for (int i = 0; i < 6; i++) {
+                results.add(scheduler.submitSale(register, Map.of(milk, 1), null));
+            }
+            assertThrows(RejectedExecutionException.class,
+                () -> scheduler.submitSale(register, Map.of(milk, 1), null));
+            assertEquals(8, sales.getPeakQueueDepth());
+
+            releaseSales.countDown();
+            for (CompletableFuture<Receipt> result : results) {
+                result.get(5, TimeUnit.SECONDS);
+            }
+            assertEquals(1, scheduler.submitReport(() -> 1).get(5, TimeUnit.SECONDS));
+            assertEquals(1, sales.getRejected());
+        }
+        assertEquals(991, milk.getQuantity());
+    }
+
+    @Test
+    void testFailedReceiptWritesAreRetriedThenReported() throws Exception {
+        store.setReceiptDirectory(dir.resolve("missing"));
+        LaneMetrics persistence;
+
+        try (StoreScheduler scheduler = new StoreScheduler(store, 1, 1, 8)) {
+            scheduler.submitSale(register, Map.of(milk, 1), null).get(5, TimeUnit.SECONDS);
+            persistence = scheduler.getMetrics(StoreScheduler.Lane.PERSISTENCE);
+        }
+
+        assertEquals(1, persistence.getFailed());
+        assertNotNull(persistence.getLastFailure());
+        assertEquals(999, milk.getQuantity());
+    }
+
+    @Test
+    void testCloseRestoresThePreviousPersistenceExecutor() {
+        Executor inline = Runnable::run;
+        store.setPersistenceExecutor(inline);
+
+        try (StoreScheduler scheduler = new StoreScheduler(store, 1, 1, 8)) {
+            assertNotSame(inline, store.getPersistenceExecutor());
+            store.getPersistenceExecutor().execute(() -> { });
+            assertEquals(1, scheduler.getMetrics(StoreScheduler.Lane.PERSISTENCE).getSubmitted());
+        }
+
+        assertSame(inline, store.getPersistenceExecutor());
+    }
+}
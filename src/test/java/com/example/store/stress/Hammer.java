@@ -0,0 +1,47 @@
+package com.example.store.stress;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+// Starts every worker at once from a shared gate so they contend from the first iteration
+final class Hammer {
+    interface Worker {
+        void run(int thread) throws Exception;
+    }
+
+    private Hammer() {
+    }
+
+    static void run(int threads, Worker worker) throws InterruptedException {
+        CountDownLatch gate = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            Thread runner = new Thread(() -> {
+                try {
+                    gate.await();
+                    worker.run(thread);
+                } catch (Throwable e) {
+                    failures.add(e);
+                } finally {
+                    done.countDown();
+                }
+            }, "stress-" + t);
+            runner.setDaemon(true);
+            runner.start();
+        }
+        gate.countDown();
+        assertTrue(done.await(60, TimeUnit.SECONDS), "stress workers did not finish");
+        if (!failures.isEmpty()) {
+            AssertionError error = new AssertionError(failures.size() + " worker(s) failed");
+            failures.forEach(error::addSuppressed);
+            fail(error);
+        }
+    }
+}
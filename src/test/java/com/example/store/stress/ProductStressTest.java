@@ -0,0 +1,47 @@
+package com.example.store.stress;
+
+import com.example.store.model.FoodProduct;
+import com.example.store.model.Product;
+import com.example.store.model.ProductLot;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Tag("stress")
+class ProductStressTest {
+
+    // Sells straight from the product, without the store lock, across several lots
+    @Test
+    void testConcurrentDecreaseNeverOversells() throws InterruptedException {
+        FoodProduct bread = new FoodProduct("F100", "Bread", 1.20, LocalDate.now().plusDays(3), 3_000);
+        bread.addLot(new ProductLot(1.30, LocalDate.now().plusDays(5), 3_000));
+        bread.addLot(new ProductLot(1.25, LocalDate.now().plusDays(4), 4_000));
+        AtomicInteger taken = new AtomicInteger();
+
+        Hammer.run(8, thread -> {
+            for (int i = 0; i < 5_000; i++) {
+                try {
+                    bread.decreaseQuantity(1);
+                    taken.incrementAndGet();
+                } catch (Product.InsufficientStockException e) {
+                    // Expected once the stock runs out
+                }
+                if (thread == 0 && i % 100 == 0) {
+                    bread.increaseQuantity(1);
+                    taken.decrementAndGet();
+                }
+            }
+        });
+
+        int inLots = 0;
+        for (ProductLot lot : bread.getLots()) {
+            assertTrue(lot.getQuantity() >= 0);
+            inLots += lot.getQuantity();
+        }
+        assertEquals(10_000, taken.get() + bread.getQuantity());
+        assertEquals(bread.getQuantity(), inLots);
+    }
+}
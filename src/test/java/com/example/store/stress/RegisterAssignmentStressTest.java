@@ -0,0 +1,56 @@
+package com.example.store.stress;
+
+import com.example.store.model.CashRegister;
+import com.example.store.model.Cashier;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+@Tag("stress")
+class RegisterAssignmentStressTest {
+
+    // Cashiers fight over fewer registers; afterwards every assignment must be seen from both sides
+    @Test
+    void testOneCashierPerRegister() throws InterruptedException {
+        CashRegister[] registers = new CashRegister[3];
+        for (int i = 0; i < registers.length; i++) {
+            registers[i] = new CashRegister("R" + i);
+        }
+        Cashier[] cashiers = new Cashier[8];
+        for (int i = 0; i < cashiers.length; i++) {
+            cashiers[i] = new Cashier("C" + i, "Cashier " + i, 1500.0);
+        }
+
+        Hammer.run(cashiers.length, thread -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < 20_000; i++) {
+                // Any thread may move any cashier, so the same cashier is also raced against itself
+                Cashier cashier = cashiers[random.nextInt(cashiers.length)];
+                if (random.nextInt(4) == 0) {
+                    cashier.removeFromRegister();
+                    continue;
+                }
+                try {
+                    cashier.assignToRegister(registers[random.nextInt(registers.length)]);
+                } catch (IllegalStateException e) {
+                    // The register is taken
+                }
+            }
+        });
+
+        for (CashRegister register : registers) {
+            Cashier cashier = register.getAssignedCashier();
+            if (cashier != null) {
+                assertSame(register, cashier.getAssignedRegister());
+            }
+        }
+        for (Cashier cashier : cashiers) {
+            CashRegister register = cashier.getAssignedRegister();
+            if (register != null) {
+                assertSame(cashier, register.getAssignedCashier());
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.store.stress;
+
+import com.example.store.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Tag("stress")
+class SaleStressTest {
+    private static final int THREADS = 8;
+    private static final int SALES_PER_THREAD = 2_000;
+    private static final int MILK_STOCK = 6_000;
+    private static final int SOAP_STOCK = 9_000;
+
+    @TempDir
+    Path dir;
+
+    private Store store;
+    private FoodProduct milk;
+    private NonFoodProduct soap;
+    private CashRegister[] registers;
+
+    @BeforeEach
+    void setUp() {
+        Receipt.resetReceiptNumber();
+        store = new Store("Stress Store", 20.0, 30.0, 7, 15.0);
+        store.setReceiptDirectory(dir);
+        milk = new FoodProduct("F001", "Milk", 2.50, LocalDate.now().plusDays(30), MILK_STOCK);
+        soap = new NonFoodProduct("NF001", "Soap", 3.00, LocalDate.now().plusMonths(6), SOAP_STOCK);
+        store.addProduct(milk);
+        store.addProduct(soap);
+        registers = new CashRegister[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            Cashier cashier = new Cashier("C" + i, "Cashier " + i, 1500.0);
+            registers[i] = new CashRegister("R" + i);
+            store.addCashier(cashier);
+            store.addCashRegister(registers[i]);
+            cashier.assignToRegister(registers[i]);
+        }
+    }
+
+    // Demand exceeds stock, so every sale after the shelves empty must be rejected whole
+    @Test
+    void testNoOversellAndTotalsMatchReceipts() throws InterruptedException {
+        int milkIndex = store.getProductIndex("F001");
+        int soapIndex = store.getProductIndex("NF001");
+        AtomicInteger rejected = new AtomicInteger();
+
+        Hammer.run(THREADS, thread -> {
+            SaleBasket basket = new SaleBasket();
+            ReceiptBuffer buffer = new ReceiptBuffer();
+            for (int i = 0; i < SALES_PER_THREAD; i++) {
+                basket.clear();
+                basket.add(soapIndex, 1 + i % 2).add(milkIndex, 1);
+                try {
+                    if (i % 4 == 0) {
+                        store.commitPricedSale(registers[thread], Map.of(milk, 1, soap, 1 + i % 2),
+                                               Map.of(milk, store.quoteLotPrice(milk), soap, store.quoteLotPrice(soap)),
+                                               null);
+                    } else {
+                        store.processSale(registers[thread], basket, buffer);
+                    }
+                } catch (Product.InsufficientStockException e) {
+                    rejected.incrementAndGet();
+                }
+            }
+        });
+
+        List<Receipt> receipts = store.getAllReceipts();
+        Map<Product, Integer> sold = new HashMap<>();
+        Set<Integer> numbers = new HashSet<>();
+        long revenueMinor = 0;
+        for (Receipt receipt : receipts) {
+            assertTrue(numbers.add(receipt.getReceiptNumber()), "duplicate receipt number");
+            revenueMinor += receipt.getTotalAmountMinor();
+            for (int i = 0; i < receipt.getItemCount(); i++) {
+                sold.merge(receipt.getItemProduct(i), receipt.getItemQuantity(i), Integer::sum);
+            }
+        }
+
+        assertEquals(THREADS * SALES_PER_THREAD, receipts.size() + rejected.get());
+        assertEquals(MILK_STOCK, sold.get(milk) + milk.getQuantity());
+        assertEquals(SOAP_STOCK, sold.get(soap) + soap.getQuantity());
+        assertTrue(milk.getQuantity() >= 0 && soap.getQuantity() >= 0);
+        assertTrue(rejected.get() > 0, "stock should have run out");
+        assertEquals(revenueMinor, store.getSnapshot().getTotalRevenueMinor());
+        assertEquals(receipts.size(), store.getTotalReceiptsCount());
+        // Rejected sales do not take a number, so committed receipts are numbered without gaps
+        assertEquals(receipts.size(), numbers.size());
+        assertTrue(numbers.contains(1) && numbers.contains(receipts.size()));
+
+        int perRegister = 0;
+        for (CashRegister register : registers) {
+            perRegister += register.getReceipts().size();
+        }
+        assertEquals(receipts.size(), perRegister);
+        assertEquals(milk.getQuantity() > 0, store.isSellable(milk));
+        assertEquals(soap.getQuantity() > 0, store.isSellable(soap));
+    }
+
+    // Restocking and delivering lots while selling must keep stock, lots and sales in balance
+    @Test
+    void testRestockAndLotsDuringSales() throws InterruptedException {
+        int milkIndex = store.getProductIndex("F001");
+        AtomicInteger received = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        Hammer.run(THREADS, thread -> {
+            SaleBasket basket = new SaleBasket();
+            ReceiptBuffer buffer = new ReceiptBuffer();
+            for (int i = 0; i < SALES_PER_THREAD; i++) {
+                if (thread == 0 && i % 10 == 0) {
+                    store.restockProduct(milk, 5);
+                    received.addAndGet(5);
+                } else if (thread == 1 && i % 25 == 0) {
+                    store.receiveLot(milk, new ProductLot(2.60, LocalDate.now().plusDays(10 + i % 20), 20));
+                    received.addAndGet(20);
+                } else {
+                    basket.clear();
+                    basket.add(milkIndex, 1 + i % 3);
+                    try {
+                        store.processSale(registers[thread], basket, buffer);
+                    } catch (Product.InsufficientStockException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+            }
+        });
+
+        int sold = 0;
+        for (Receipt receipt : store.getAllReceipts()) {
+            // A sale that spans lots has one line per lot
+            for (int i = 0; i < receipt.getItemCount(); i++) {
+                sold += receipt.getItemQuantity(i);
+            }
+        }
+        int inLots = 0;
+        for (ProductLot lot : milk.getLots()) {
+            inLots += lot.getQuantity();
+        }
+        assertEquals(MILK_STOCK + received.get(), sold + milk.getQuantity());
+        assertEquals(milk.getQuantity(), inLots);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.store.util;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+class AppendOnlyListTest {
+
+    @Test
+    void testAddAcrossChunks() {
+        AppendOnlyList<Integer> list = new AppendOnlyList<>();
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(i, list.add(i));
+        }
+
+        assertEquals(5000, list.size());
+        assertEquals(0, list.get(0));
+        assertEquals(1024, list.get(1024));
+        assertEquals(4999, list.get(4999));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(5000));
+    }
+
+    @Test
+    void testViewsAreFixedAndReadOnly() {
+        AppendOnlyList<String> list = new AppendOnlyList<>();
+        list.add("a");
+        list.add("b");
+
+        List<String> view = list.view();
+        list.add("c");
+
+        assertEquals(List.of("a", "b"), view);
+        assertEquals(List.of("b", "c"), list.view(1, 3));
+        assertEquals(List.of("b"), list.view().subList(1, 2));
+        assertThrows(UnsupportedOperationException.class, () -> view.add("d"));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.view(2, 5));
+    }
+}
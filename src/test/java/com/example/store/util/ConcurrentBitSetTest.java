@@ -0,0 +1,56 @@
+package com.example.store.util;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class ConcurrentBitSetTest {
+
+    @Test
+    void testSetClearAndScanAcrossChunks() {
+        ConcurrentBitSet bits = new ConcurrentBitSet();
+        assertEquals(-1, bits.nextSetBit(0));
+
+        bits.set(3);
+        bits.set(64);
+        bits.set(5000);
+        bits.set(5000);
+        assertTrue(bits.get(64));
+        assertFalse(bits.get(65));
+        assertFalse(bits.get(100_000));
+        assertEquals(3, bits.cardinality());
+
+        List<Integer> set = new ArrayList<>();
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            set.add(i);
+        }
+        assertEquals(List.of(3, 64, 5000), set);
+
+        bits.clear(64);
+        bits.clear(100_000);
+        assertEquals(5000, bits.nextSetBit(4));
+        assertEquals(-1, bits.nextSetBit(5001));
+        assertThrows(IndexOutOfBoundsException.class, () -> bits.set(-1));
+    }
+
+    @Test
+    void testConcurrentSettersDoNotLoseBits() throws InterruptedException {
+        ConcurrentBitSet bits = new ConcurrentBitSet();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int offset = t;
+            threads[t] = new Thread(() -> {
+                for (int i = offset; i < 20_000; i += threads.length) {
+                    bits.set(i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(20_000, bits.cardinality());
+    }
+}
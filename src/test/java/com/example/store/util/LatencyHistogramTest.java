@@ -0,0 +1,28 @@
+package com.example.store.util;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testPercentilesAreWithinBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(Duration.ZERO, histogram.getPercentile(0.99));
+
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1_000L);
+        }
+        histogram.record(-5);
+
+        assertEquals(1001, histogram.getCount());
+        long p50 = histogram.getPercentile(0.50).toNanos();
+        long p99 = histogram.getPercentile(0.99).toNanos();
+        assertTrue(p50 >= 500_000 && p50 <= 625_000, "p50 " + p50);
+        assertTrue(p99 >= 990_000 && p99 <= 1_237_500, "p99 " + p99);
+        assertEquals(0, histogram.getPercentile(0.0005).toNanos());
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(0));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.store.util;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+    @Test
+    void testConversions() {
+        assertEquals(390, Money.toMinor(3.90));
+        assertEquals(255, Money.toMinor(2.50 * 1.20 * 0.85));
+        assertEquals(3.9, Money.toMajor(390));
+        assertEquals(390, Money.parse("3.9"));
+        assertEquals(-5, Money.parse("-0.05"));
+    }
+
+    @Test
+    void testFormat() {
+        assertEquals("0.00", Money.format(0));
+        assertEquals("0.07", Money.format(7));
+        assertEquals("12.34", Money.format(1234));
+        assertEquals("-1.05", Money.format(-105));
+        assertEquals("1000000.10", Money.format(100_000_010));
+    }
+
+    @Test
+    void testSumsDoNotDrift() {
+        long minor = 0;
+        double major = 0.0;
+        for (int i = 0; i < 1_000_000; i++) {
+            minor += Money.toMinor(0.10);
+            major += 0.10;
+        }
+        assertEquals(100_000_00, minor);
+        assertEquals("100000.00", Money.format(minor));
+        assertNotEquals(100_000.0, major);
+    }
+}